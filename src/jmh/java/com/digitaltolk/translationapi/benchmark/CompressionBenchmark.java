@@ -0,0 +1,65 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip cost and output size per level for an already serialized 100k-row export, the choice behind
+ * {@code translation.compression.precompressed-level} and {@code streaming-level}. The compressed size is
+ * printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CompressionBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"1", "6", "9"})
+    private int level;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] locales = {"de", "en", "es", "fr"};
+        List<TranslationExportRow> exportRows = new ArrayList<>(rows);
+        int perLocale = rows / locales.length;
+        for (String locale : locales) {
+            for (int i = 0; i < perLocale; i++) {
+                exportRows.add(new TranslationExportRow(locale, "screen" + (i % 200) + ".label" + i,
+                        "Translated \"label\" number " + i + " for " + locale));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TranslationExportWriter().write(exportRows.iterator(), out);
+        payload = out.toByteArray();
+        System.out.printf("level %d: %d bytes -> %d bytes%n", level, payload.length, gzip());
+    }
+
+    @Benchmark
+    public long gzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (OutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(payload);
+        }
+        return out.size();
+    }
+}
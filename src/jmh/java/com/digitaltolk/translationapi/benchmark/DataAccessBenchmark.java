@@ -0,0 +1,142 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.TranslationApiApplication;
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
+import com.digitaltolk.translationapi.dto.TranslationRequest;
+import com.digitaltolk.translationapi.dto.TranslationResponse;
+import com.digitaltolk.translationapi.entity.Translation;
+import com.digitaltolk.translationapi.postings.TagPostings;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.service.TranslationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The data-access profile before and after tuning, against a real PostgreSQL: bulk creates through
+ * {@code createTranslations}, 1,000 rows with one or two tags per call and reported in rows per second,
+ * and lookups of a random translation with its tags straight from the repository, so no cache hides the
+ * round trips. {@code defaults} boots the application with the batching, pool and driver settings put back
+ * to the framework and driver defaults, {@code tuned} with {@code application.properties}.
+ * <p>
+ * Boots against {@code SPRING_DATASOURCE_URL}, by default a local {@code translationdb} that is already
+ * seeded; created rows ({@code bench.dataaccess.*} keys) are deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DataAccessBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/translationdb";
+    private static final String KEY_PREFIX = "bench.dataaccess.";
+    private static final int BATCH = 1000;
+
+    // everything application.properties tunes for data access, back at its default; passed as arguments,
+    // since builder properties rank below application.properties
+    private static final String[] DEFAULTS = {
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=1",
+            "--spring.jpa.properties.hibernate.order_inserts=false",
+            "--spring.jpa.properties.hibernate.order_updates=false",
+            "--spring.jpa.properties.hibernate.query.in_clause_parameter_padding=false",
+            "--spring.jpa.properties.hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_HOLD",
+            "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false",
+            "--spring.datasource.hikari.data-source-properties.prepareThreshold=5",
+            "--spring.datasource.hikari.data-source-properties.preparedStatementCacheQueries=256",
+            "--spring.datasource.hikari.data-source-properties.preparedStatementCacheSizeMiB=5",
+            "--translation.datasource.read.enabled=false"
+    };
+
+    @Param({"defaults", "tuned"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private TranslationService translationService;
+    private TranslationRepository translationRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID[] ids;
+    private UUID[] tagIds;
+    private String keyPrefix;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        String url = System.getenv().getOrDefault("SPRING_DATASOURCE_URL", DEFAULT_URL);
+        List<String> args = new ArrayList<>(List.of("--spring.datasource.url=" + url, "--server.port=0",
+                "--logging.level.root=WARN"));
+        if (profile.equals("defaults")) {
+            args.addAll(List.of(DEFAULTS));
+        }
+        context = new SpringApplicationBuilder(TranslationApiApplication.class).run(args.toArray(String[]::new));
+        translationService = context.getBean(TranslationService.class);
+        translationRepository = context.getBean(TranslationRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // the background loads would compete with the measurement
+        TranslationDictionary dictionary = context.getBean(TranslationDictionary.class);
+        TagPostings tagPostings = context.getBean(TagPostings.class);
+        while (!dictionary.isReady() || !tagPostings.isReady()) {
+            Thread.sleep(200);
+        }
+
+        ids = jdbcTemplate.queryForList("SELECT id FROM translation TABLESAMPLE SYSTEM (10) LIMIT 10000", UUID.class)
+                .toArray(UUID[]::new);
+        // read the sampled rows once, so lookups aren't measured against a cold buffer cache
+        jdbcTemplate.query("SELECT t.id, t.value, tt.tag_id FROM translation t "
+                + "LEFT JOIN translation_tag tt ON tt.translation_id = t.id WHERE t.id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)), rs -> {
+                });
+        tagIds = jdbcTemplate.queryForList("SELECT id FROM tag LIMIT 20", UUID.class).toArray(UUID[]::new);
+        // unique per run, so rows left behind by an aborted run can't collide
+        keyPrefix = KEY_PREFIX + profile + "." + System.currentTimeMillis() + ".";
+        if (ids.length == 0 || tagIds.length < 2) {
+            throw new IllegalStateException("Seed the database first, see SearchBenchmark");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM translation_tag WHERE translation_id IN "
+                + "(SELECT id FROM translation WHERE key LIKE '" + KEY_PREFIX + "%')");
+        jdbcTemplate.update("DELETE FROM translation WHERE key LIKE '" + KEY_PREFIX + "%'");
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public List<TranslationResponse> createTranslations() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<TranslationRequest> requests = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            // one tag, or two different ones
+            int first = random.nextInt(tagIds.length);
+            int second = (first + 1 + random.nextInt(tagIds.length - 1)) % tagIds.length;
+            TranslationRequest request = new TranslationRequest();
+            request.setKey(keyPrefix + sequence++);
+            request.setLocale("en");
+            request.setValue("Benchmark value " + i);
+            request.setTagIds(i % 2 == 0 ? Set.of(tagIds[first]) : Set.of(tagIds[first], tagIds[second]));
+            requests.add(request);
+        }
+        return translationService.createTranslations(requests);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<Translation> lookupWithTags() {
+        return translationRepository.findWithTagsById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
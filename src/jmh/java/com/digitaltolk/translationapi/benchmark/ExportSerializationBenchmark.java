@@ -0,0 +1,75 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing export rows to JSON, with and without gzip, at catalog sizes from 10k to 1M rows. Rows are
+ * prebuilt, so this is the writer's cost alone; the database side is in {@link SearchBenchmark}'s setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportSerializationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private final TranslationExportWriter writer = new TranslationExportWriter();
+    private List<TranslationExportRow> exportRows;
+
+    @Setup
+    public void setUp() {
+        String[] locales = {"de", "en", "es", "fr"};
+        exportRows = new ArrayList<>(rows);
+        int perLocale = rows / locales.length;
+        for (String locale : locales) {
+            for (int i = 0; i < perLocale; i++) {
+                exportRows.add(new TranslationExportRow(locale, "screen" + (i % 200) + ".label" + i,
+                        "Translated \"label\" number " + i + " for " + locale));
+            }
+        }
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        CountingNullOutputStream counting = new CountingNullOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(counting, 8192)) {
+                writer.write(exportRows.iterator(), out);
+            }
+        } else {
+            writer.write(exportRows.iterator(), counting);
+        }
+        return counting.count;
+    }
+
+    private static class CountingNullOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
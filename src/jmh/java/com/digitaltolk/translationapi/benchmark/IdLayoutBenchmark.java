@@ -0,0 +1,164 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.id.UuidV7;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput and index growth with random version 4 ids against time-ordered version 7 ids, on a copy
+ * of the seeded catalog. With {@code seeded=true} each run copies {@code translation} and
+ * {@code translation_tag} with their existing (version 4) ids into scratch tables keyed like the real ones, so
+ * new ids go into an index that looks like production after the switch; with {@code seeded=false} the tables
+ * start empty, like a fresh install. Then it inserts 1,000 translations with one or two tags per transaction,
+ * reported in rows per second. Index sizes, bytes of index added per inserted row and WAL written are printed at the
+ * end of the run; a checkpoint before measuring makes the full-page writes that random inserts cause show up.
+ * <p>
+ * Connects to {@code SPRING_DATASOURCE_URL}, by default a local {@code translationdb} that is already seeded;
+ * the {@code bench_ids_*} tables are dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdLayoutBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/translationdb";
+    private static final int BATCH = 1000;
+
+    @Param({"v4", "v7"})
+    private String ids;
+
+    // whether the scratch tables start out as a copy of the catalog, or empty like a fresh install
+    @Param({"true", "false"})
+    private boolean seeded;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+    private String translationTable;
+    private String tagTable;
+
+    private UUID[] tagIds;
+    private long sequence;
+    private long insertedRows;
+    private String walStart;
+    private long translationIndexStart;
+    private long tagIndexStart;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv().getOrDefault("SPRING_DATASOURCE_URL", DEFAULT_URL),
+                System.getenv().getOrDefault("SPRING_DATASOURCE_USERNAME", "postgres"),
+                System.getenv().getOrDefault("SPRING_DATASOURCE_PASSWORD", "admin"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        translationTable = "bench_ids_translation_" + ids;
+        tagTable = "bench_ids_translation_tag_" + ids;
+
+        dropTables();
+        jdbcTemplate.execute("CREATE TABLE " + translationTable + " (id uuid PRIMARY KEY, key text NOT NULL, "
+                + "locale text NOT NULL, value text, UNIQUE (key, locale))");
+        jdbcTemplate.execute("CREATE TABLE " + tagTable + " (translation_id uuid NOT NULL, tag_id uuid NOT NULL, "
+                + "PRIMARY KEY (translation_id, tag_id))");
+        jdbcTemplate.execute("CREATE INDEX ON " + tagTable + " (tag_id)");
+        if (seeded) {
+            // inserted through the indexes rather than indexed afterwards, so the version 4 part carries the
+            // half-empty pages from random splits that the live indexes do
+            jdbcTemplate.execute("INSERT INTO " + translationTable + " SELECT id, key, locale, value FROM translation");
+            jdbcTemplate.execute("INSERT INTO " + tagTable + " SELECT translation_id, tag_id FROM translation_tag");
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE " + translationTable);
+        jdbcTemplate.execute("VACUUM ANALYZE " + tagTable);
+
+        tagIds = jdbcTemplate.queryForList("SELECT id FROM tag LIMIT 20", UUID.class).toArray(UUID[]::new);
+        if (tagIds.length < 2) {
+            throw new IllegalStateException("Seed the database first, see SearchBenchmark");
+        }
+
+        translationIndexStart = indexSize(translationTable + "_pkey");
+        tagIndexStart = indexSize(tagTable + "_pkey");
+        jdbcTemplate.execute("CHECKPOINT");
+        walStart = jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        long wal = jdbcTemplate.queryForObject("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint",
+                Long.class, walStart);
+        long translationIndex = indexSize(translationTable + "_pkey");
+        long tagIndex = indexSize(tagTable + "_pkey");
+        System.out.printf("%n%s, seeded=%s: %d rows inserted, %s_pkey %d -> %d MB (%.1f bytes/row), "
+                        + "%s_pkey %d -> %d MB (%.1f bytes/row), %.1f KB WAL/row%n",
+                ids, seeded, insertedRows,
+                translationTable, translationIndexStart >> 20, translationIndex >> 20,
+                (double) (translationIndex - translationIndexStart) / insertedRows,
+                tagTable, tagIndexStart >> 20, tagIndex >> 20,
+                (double) (tagIndex - tagIndexStart) / insertedRows,
+                wal / 1024.0 / insertedRows);
+        dropTables();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertTranslations() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID[] translationIds = new UUID[BATCH];
+        String[] keys = new String[BATCH];
+        UUID[] tagTranslationIds = new UUID[BATCH * 2];
+        UUID[] tags = new UUID[BATCH * 2];
+        int associations = 0;
+        for (int i = 0; i < BATCH; i++) {
+            translationIds[i] = ids.equals("v7") ? UuidV7.next() : UUID.randomUUID();
+            keys[i] = "bench.ids." + sequence++;
+            // one tag, or two different ones
+            int first = random.nextInt(tagIds.length);
+            tagTranslationIds[associations] = translationIds[i];
+            tags[associations++] = tagIds[first];
+            if (i % 2 == 1) {
+                tagTranslationIds[associations] = translationIds[i];
+                tags[associations++] = tagIds[(first + 1 + random.nextInt(tagIds.length - 1)) % tagIds.length];
+            }
+        }
+        UUID[] tagTranslationIdBatch = Arrays.copyOf(tagTranslationIds, associations);
+        UUID[] tagBatch = Arrays.copyOf(tags, associations);
+
+        transactions.executeWithoutResult(status -> {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement("INSERT INTO " + translationTable
+                        + " (id, key, locale, value) SELECT id, key, 'en', 'Benchmark value' "
+                        + "FROM unnest(?::uuid[], ?::text[]) AS s (id, key)");
+                statement.setArray(1, connection.createArrayOf("uuid", translationIds));
+                statement.setArray(2, connection.createArrayOf("text", keys));
+                return statement;
+            });
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement("INSERT INTO " + tagTable
+                        + " (translation_id, tag_id) SELECT * FROM unnest(?::uuid[], ?::uuid[])");
+                statement.setArray(1, connection.createArrayOf("uuid", tagTranslationIdBatch));
+                statement.setArray(2, connection.createArrayOf("uuid", tagBatch));
+                return statement;
+            });
+        });
+        insertedRows += BATCH;
+    }
+
+    private long indexSize(String index) {
+        return jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, index);
+    }
+
+    private void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + tagTable);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + translationTable);
+    }
+}
@@ -0,0 +1,52 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.security.JwtAuthenticationFilter;
+import com.digitaltolk.translationapi.security.JwtTokenUtil;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost per request. {@code cachedTokens = 0} verifies the signature on every request.
+ * Single-threaded: the request object is reused between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JwtFilterBenchmark {
+
+    private static final String FILTERED_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+    @Param({"0", "10000"})
+    private long cachedTokens;
+
+    private final FilterChain chain = (request, response) -> { };
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(cachedTokens);
+        filter = new JwtAuthenticationFilter(jwtTokenUtil);
+        request = new MockHttpServletRequest("GET", "/v1/api/translations");
+        request.addHeader("Authorization", "Bearer " + jwtTokenUtil.generateToken("admin"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        request.removeAttribute(FILTERED_ATTRIBUTE);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
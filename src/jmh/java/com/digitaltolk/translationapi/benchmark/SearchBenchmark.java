@@ -0,0 +1,129 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.TranslationApiApplication;
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
+import com.digitaltolk.translationapi.dto.SeedRequest;
+import com.digitaltolk.translationapi.dto.TagMatch;
+import com.digitaltolk.translationapi.dto.TranslationResponse;
+import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.job.JobStatus;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.seed.DataSeeder;
+import com.digitaltolk.translationapi.service.TranslationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Search against a real PostgreSQL: filter search (two-phase ids then rows) and ranked text search, so
+ * plan changes from new indexes or query rewrites show up. Boots the application on a random port
+ * against {@code SPRING_DATASOURCE_URL}, by default a local {@code translationdb}, and seeds it with the
+ * data seeder first when it holds fewer than {@code seedRows} translations. Point it at a throwaway
+ * database; seeding writes {@code keyN} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/translationdb";
+
+    @Param({"100000"})
+    private int seedRows;
+
+    private ConfigurableApplicationContext context;
+    private TranslationService translationService;
+
+    private TranslationSearchRequest byLocaleAndTags;
+    private TranslationSearchRequest byAllTags;
+    private TranslationSearchRequest byKeys;
+    private TranslationSearchRequest byText;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        String url = System.getenv().getOrDefault("SPRING_DATASOURCE_URL", DEFAULT_URL);
+        context = new SpringApplicationBuilder(TranslationApiApplication.class)
+                .properties("spring.datasource.url=" + url, "server.port=0", "logging.level.root=WARN")
+                .run();
+        translationService = context.getBean(TranslationService.class);
+        seedIfNeeded();
+        // the dictionary loads in the background after startup, don't let it compete with the measurement
+        TranslationDictionary dictionary = context.getBean(TranslationDictionary.class);
+        while (!dictionary.isReady()) {
+            Thread.sleep(200);
+        }
+
+        byLocaleAndTags = request(req -> {
+            req.setLocales(List.of("en"));
+            req.setTags(Set.of("tag1", "tag2"));
+        });
+        byAllTags = request(req -> {
+            req.setTags(Set.of("tag1", "tag2"));
+            req.setTagMatch(TagMatch.ALL);
+        });
+        byKeys = request(req -> req.setKeys(List.of("key12", "key1234", "key98765")));
+        byText = request(req -> req.setQuery("value12"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TranslationResponse> filterByLocaleAndTags() {
+        return translationService.search(byLocaleAndTags);
+    }
+
+    @Benchmark
+    public Page<TranslationResponse> filterByAllTags() {
+        return translationService.search(byAllTags);
+    }
+
+    @Benchmark
+    public Page<TranslationResponse> filterByKeys() {
+        return translationService.search(byKeys);
+    }
+
+    @Benchmark
+    public Page<TranslationResponse> rankedText() {
+        return translationService.search(byText);
+    }
+
+    private void seedIfNeeded() throws InterruptedException {
+        if (context.getBean(TranslationRepository.class).count() >= seedRows) {
+            return;
+        }
+        SeedRequest seed = new SeedRequest();
+        seed.setRows(seedRows);
+        seed.setLocales(4);
+        seed.setTags(50);
+        seed.setMaxTagsPerRow(3);
+        DataSeeder dataSeeder = context.getBean(DataSeeder.class);
+        BackgroundJob job = context.getBean(JobRegistry.class).submit("seed", seed.getRows(), j -> dataSeeder.run(seed, j));
+        while (job.getStatus() == JobStatus.RUNNING) {
+            Thread.sleep(200);
+        }
+        if (job.getStatus() == JobStatus.FAILED) {
+            throw new IllegalStateException("Seeding failed: " + job.getError());
+        }
+    }
+
+    private static TranslationSearchRequest request(Consumer<TranslationSearchRequest> customizer) {
+        TranslationSearchRequest request = new TranslationSearchRequest();
+        request.setSize(50);
+        customizer.accept(request);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.dto.TagMatch;
+import com.digitaltolk.translationapi.postings.PostingLists;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag-scoped key lookups on the in-memory posting lists: 32 locales, 10k tags drawn with a Zipf-like skew
+ * like the data seeder's, one to four tags per row. Results are the sorted key lists per locale, so the
+ * cost includes turning ordinals back into keys; resolving values is a dictionary lookup per key on top.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TagPostingsBenchmark {
+
+    private static final int LOCALES = 32;
+    private static final int TAGS = 10_000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private PostingLists postings;
+    private UUID[] tags;
+
+    @Setup
+    public void setUp() {
+        tags = new UUID[TAGS];
+        double[] cumulative = new double[TAGS];
+        double total = 0;
+        for (int i = 0; i < TAGS; i++) {
+            tags[i] = UUID.randomUUID();
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+
+        postings = new PostingLists();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int row = 0; row < rows; row++) {
+            String locale = "l" + row % LOCALES;
+            String key = "screen" + (row / LOCALES % 500) + ".label" + row / LOCALES;
+            int count = 1 + random.nextInt(4);
+            for (int i = 0; i < count; i++) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                postings.add(locale, key, tags[index < 0 ? -index - 1 : index]);
+            }
+        }
+        postings.optimize();
+        System.out.printf("%n%d associations, %d bytes, keys of the top tag in l0: %d%n", postings.entries(),
+                postings.heapBytes(), postings.keys(List.of(tags[0]), TagMatch.ANY, List.of("l0")).get("l0").size());
+    }
+
+    // a mid-popularity tag, a few hundred keys per locale
+    @Benchmark
+    public Map<String, List<String>> oneTagOneLocale() {
+        return postings.keys(List.of(tags[20]), TagMatch.ANY, List.of("l0"));
+    }
+
+    @Benchmark
+    public Map<String, List<String>> anyOfThreeTagsOneLocale() {
+        return postings.keys(List.of(tags[20], tags[50], tags[100]), TagMatch.ANY, List.of("l0"));
+    }
+
+    // the two most popular tags, so the intersection is as large as it gets
+    @Benchmark
+    public Map<String, List<String>> allOfTwoTagsOneLocale() {
+        return postings.keys(List.of(tags[0], tags[1]), TagMatch.ALL, List.of("l0"));
+    }
+
+    @Benchmark
+    public Map<String, List<String>> anyOfThreeTagsAllLocales() {
+        return postings.keys(List.of(tags[20], tags[50], tags[100]), TagMatch.ANY, List.of());
+    }
+}
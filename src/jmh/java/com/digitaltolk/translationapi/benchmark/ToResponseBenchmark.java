@@ -0,0 +1,87 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.cache.TranslationCache;
+import com.digitaltolk.translationapi.dto.PagedResponse;
+import com.digitaltolk.translationapi.dto.TranslationResponse;
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.entity.Translation;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.repository.TranslationTombstoneRepository;
+import com.digitaltolk.translationapi.service.impl.TagResolver;
+import com.digitaltolk.translationapi.service.impl.TranslationServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping for a page of translations, the per-row work behind every listing and search.
+ * The repository is a plain stub so only the service's own mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToResponseBenchmark {
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    @Param({"3"})
+    private int tagsPerRow;
+
+    private TranslationServiceImpl translationService;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tags.add(Tag.builder().id(UUID.randomUUID()).name("tag" + i).build());
+        }
+        List<Translation> rows = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Set<Tag> rowTags = new HashSet<>();
+            for (int t = 0; t < tagsPerRow; t++) {
+                rowTags.add(tags.get((i + t * 7) % tags.size()));
+            }
+            rows.add(Translation.builder()
+                    .id(UUID.randomUUID())
+                    .key("screen" + (i % 40) + ".label" + i)
+                    .locale(i % 2 == 0 ? "en" : "fr")
+                    .value("Translated label number " + i)
+                    .tags(rowTags)
+                    .build());
+        }
+        pageable = PageRequest.of(0, pageSize);
+        PageImpl<Translation> page = new PageImpl<>(rows, pageable, 1_000_000);
+
+        TranslationRepository translationRepository = Stubs.of(TranslationRepository.class, (method, args) ->
+                method.getName().equals("findAll") && args.length == 1 && args[0] instanceof Pageable ? page : null);
+        translationService = new TranslationServiceImpl(
+                translationRepository,
+                Stubs.of(TranslationTombstoneRepository.class, (method, args) -> null),
+                new TagResolver(Stubs.of(TagRepository.class, (method, args) -> null)),
+                new TranslationExportWriter(),
+                event -> { },
+                new TranslationCache(1 << 20),
+                new LocaleFallback("en", ""));
+    }
+
+    @Benchmark
+    public PagedResponse<TranslationResponse> mapPage() {
+        return translationService.getAllTranslations(pageable);
+    }
+}
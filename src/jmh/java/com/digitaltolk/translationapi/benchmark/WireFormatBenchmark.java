@@ -0,0 +1,121 @@
+package com.digitaltolk.translationapi.benchmark;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.dto.TranslationRequest;
+import com.digitaltolk.translationapi.dto.TranslationResponse;
+import com.digitaltolk.translationapi.export.ExportFormat;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against Smile and CBOR for the three payloads that support them: a 100k-row export, a page of
+ * search results and a bulk create body. Encoded sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WireFormatBenchmark {
+
+    private static final TypeReference<Map<String, Map<String, String>>> EXPORT = new TypeReference<>() {
+    };
+    private static final TypeReference<List<TranslationRequest>> BULK = new TypeReference<>() {
+    };
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private ExportFormat format;
+
+    private final TranslationExportWriter writer = new TranslationExportWriter();
+    private ObjectMapper mapper;
+    private List<TranslationExportRow> exportRows;
+    private List<TranslationResponse> searchPage;
+    private byte[] encodedExport;
+    private byte[] encodedBulk;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper(factory(format));
+
+        String[] locales = {"de", "en", "es", "fr"};
+        exportRows = new ArrayList<>(100_000);
+        for (String locale : locales) {
+            for (int i = 0; i < 25_000; i++) {
+                exportRows.add(new TranslationExportRow(locale, "screen" + (i % 200) + ".label" + i,
+                        "Translated \"label\" number " + i + " for " + locale));
+            }
+        }
+
+        searchPage = new ArrayList<>(100);
+        List<TranslationRequest> bulk = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            if (i < 100) {
+                searchPage.add(TranslationResponse.builder()
+                        .id(UUID.randomUUID())
+                        .key("screen" + (i % 20) + ".label" + i)
+                        .locale(locales[i % locales.length])
+                        .value("Translated label number " + i)
+                        .tags(Set.of("web", "checkout"))
+                        .build());
+            }
+            TranslationRequest request = new TranslationRequest();
+            request.setKey("screen" + (i % 20) + ".label" + i);
+            request.setLocale(locales[i % locales.length]);
+            request.setValue("Translated label number " + i);
+            request.setTagIds(Set.of(UUID.randomUUID()));
+            bulk.add(request);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(exportRows.iterator(), out, format);
+        encodedExport = out.toByteArray();
+        encodedBulk = mapper.writeValueAsBytes(bulk);
+        System.out.printf("%s bytes: export %d, search page %d, bulk create %d%n", format, encodedExport.length,
+                mapper.writeValueAsBytes(searchPage).length, encodedBulk.length);
+    }
+
+    @Benchmark
+    public long encodeExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encodedExport.length);
+        writer.write(exportRows.iterator(), out, format);
+        return out.size();
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> decodeExport() throws IOException {
+        return mapper.readValue(encodedExport, EXPORT);
+    }
+
+    @Benchmark
+    public byte[] encodeSearchPage() throws IOException {
+        return mapper.writeValueAsBytes(searchPage);
+    }
+
+    @Benchmark
+    public List<TranslationRequest> decodeBulkCreate() throws IOException {
+        return mapper.readValue(encodedBulk, BULK);
+    }
+
+    private static JsonFactory factory(ExportFormat format) {
+        return switch (format) {
+            case JSON -> new JsonFactory();
+            case SMILE -> new SmileFactory();
+            case CBOR -> new CBORFactory();
+        };
+    }
+}
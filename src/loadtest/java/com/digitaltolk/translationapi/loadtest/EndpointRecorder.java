@@ -0,0 +1,68 @@
+package com.digitaltolk.translationapi.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies of one {@link Operation} in microseconds. Recording is wait-free; {@link #interval()} swaps
+ * the active histogram so the reporter never blocks request completions.
+ */
+class EndpointRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicLong errors = new AtomicLong();
+    private Histogram recycled;
+    private long measuredErrors;
+
+    EndpointRecorder(Operation operation) {
+        this.operation = operation;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns what was recorded since the previous call and adds it to the totals. The returned histogram is
+     * reused by the next call.
+     */
+    synchronized Histogram interval() {
+        recycled = recorder.getIntervalHistogram(recycled);
+        recycled.setTag(operation.name().toLowerCase());
+        total.add(recycled);
+        measuredErrors += errors.getAndSet(0);
+        return recycled;
+    }
+
+    /**
+     * Drops everything recorded so far, used at the end of the warm-up.
+     */
+    synchronized void reset() {
+        recycled = recorder.getIntervalHistogram(recycled);
+        total.reset();
+        errors.set(0);
+        measuredErrors = 0;
+    }
+
+    Operation operation() {
+        return operation;
+    }
+
+    synchronized Histogram total() {
+        return total.copy();
+    }
+
+    synchronized long errors() {
+        return measuredErrors;
+    }
+}
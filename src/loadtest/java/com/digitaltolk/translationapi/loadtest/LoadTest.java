@@ -0,0 +1,247 @@
+package com.digitaltolk.translationapi.loadtest;
+
+import com.digitaltolk.translationapi.job.JobStatus;
+import com.digitaltolk.translationapi.dto.SeedRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Open-loop load generator for a running instance. Seeds a reproducible dataset through the seeder job,
+ * samples existing translations, then issues a weighted mix of requests at a fixed rate. Latency is taken
+ * from the moment a request was scheduled, not sent, so a stalled server shows up in the percentiles
+ * instead of silently lowering the offered load (coordinated omission).
+ *
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.args="--rps 200 --duration 120s --mix get=60,search=30,update=10"
+ * </pre>
+ *
+ * Writes {@code <op>.hgrm} percentile distributions, an interval {@code latency.hlog} and {@code summary.json}
+ * to {@code --output}.
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration SEED_POLL_INTERVAL = Duration.ofSeconds(1);
+    private static final int SCROLL_PAGE_SIZE = 1000;
+
+    private final LoadTestOptions options;
+    private final LoadTestClient client;
+    private final Map<Operation, EndpointRecorder> recorders = new EnumMap<>(Operation.class);
+
+    LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.client = new LoadTestClient(options.baseUrl());
+        options.mix().keySet().forEach(operation -> recorders.put(operation, new EndpointRecorder(operation)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    void run() throws Exception {
+        client.login(options.username(), options.password());
+        if (options.seedRows() > 0) {
+            seed();
+        }
+        Workload workload = new Workload(client, sample(), tags(), options.mix());
+
+        Files.createDirectories(options.output());
+        try (PrintStream hlog = new PrintStream(Files.newOutputStream(options.output().resolve("latency.hlog")))) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputLegend();
+            long measuredNanos = drive(workload, logWriter);
+            report(measuredNanos);
+        }
+    }
+
+    private void seed() {
+        SeedRequest seedRequest = new SeedRequest();
+        seedRequest.setRows(options.seedRows());
+        seedRequest.setLocales(options.seedLocales());
+        seedRequest.setTags(options.seedTags());
+        seedRequest.setRandomSeed(options.randomSeed());
+
+        Job job = client.send(client.post("/api/seeder/seed", seedRequest), new TypeReference<>() {});
+        log.info("Seeding {} rows in {} locales with {} tags, job {}",
+                options.seedRows(), options.seedLocales(), options.seedTags(), job.id());
+        while (job.status() == JobStatus.RUNNING) {
+            LockSupport.parkNanos(SEED_POLL_INTERVAL.toNanos());
+            job = client.send(client.get("/api/jobs/" + job.id()), new TypeReference<>() {});
+        }
+        if (job.status() != JobStatus.COMPLETED) {
+            throw new IllegalStateException("Seeding failed: " + job.error());
+        }
+        log.info("Seeded {} rows at {} rows/s", job.processed(), job.ratePerSecond());
+    }
+
+    private List<Workload.Sampled> sample() {
+        List<Workload.Sampled> sample = new ArrayList<>(options.sampleSize());
+        String cursor = null;
+        do {
+            String path = "/api/translations/scroll?size=" + Math.min(SCROLL_PAGE_SIZE, options.sampleSize() - sample.size())
+                    + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            Page page = client.send(client.get(path), new TypeReference<>() {});
+            sample.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null && sample.size() < options.sampleSize());
+        log.info("Sampled {} translations", sample.size());
+        return sample;
+    }
+
+    private Map<String, UUID> tags() {
+        List<Tag> tags = client.send(client.get("/api/tags"), new TypeReference<>() {});
+        return tags.stream().collect(Collectors.toMap(Tag::name, Tag::id, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Issues requests on a fixed schedule until the warm-up and measured window have passed, then waits for
+     * the stragglers. Returns the length of the measured window.
+     */
+    private long drive(Workload workload, HistogramLogWriter logWriter) throws InterruptedException {
+        Random random = new Random(options.randomSeed());
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.ratePerSecond();
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long startMillis = System.currentTimeMillis();
+        logWriter.setBaseTime(startMillis + options.warmup().toMillis());
+        reporter.schedule(() -> {
+            recorders.values().forEach(EndpointRecorder::reset);
+            log.info("Warm-up done, measuring for {}s", options.duration().toSeconds());
+        }, options.warmup().toNanos(), TimeUnit.NANOSECONDS);
+        reporter.scheduleAtFixedRate(() -> logInterval(logWriter),
+                options.warmup().plus(REPORT_INTERVAL).toNanos(), REPORT_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+
+        log.info("Offering {} req/s for {}s warm-up and {}s measured, at most {} in flight",
+                options.ratePerSecond(), options.warmup().toSeconds(), options.duration().toSeconds(), options.maxInFlight());
+        for (long n = 0; ; n++) {
+            long scheduled = start + n * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = workload.nextOperation(random);
+            HttpRequest request = workload.request(operation, random);
+            EndpointRecorder recorder = recorders.get(operation);
+            // blocking here delays later sends, but their latency still counts from the schedule
+            if (!inFlight.tryAcquire(end - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                log.warn("{} requests were never sent, all {} slots stayed busy until the end",
+                        (end - scheduled + intervalNanos - 1) / intervalNanos, options.maxInFlight());
+                break;
+            }
+            client.sendAsync(request).whenComplete((status, error) -> {
+                recorder.record(System.nanoTime() - scheduled, error == null && status / 100 == 2);
+                inFlight.release();
+            });
+        }
+
+        inFlight.tryAcquire(options.maxInFlight(), 60, TimeUnit.SECONDS);
+        reporter.shutdown();
+        reporter.awaitTermination(10, TimeUnit.SECONDS);
+        logInterval(logWriter);
+        return end - measureStart;
+    }
+
+    private void logInterval(HistogramLogWriter logWriter) {
+        long now = System.currentTimeMillis();
+        StringBuilder line = new StringBuilder();
+        for (EndpointRecorder recorder : recorders.values()) {
+            Histogram interval = recorder.interval();
+            interval.setStartTimeStamp(now - REPORT_INTERVAL.toMillis());
+            interval.setEndTimeStamp(now);
+            logWriter.outputIntervalHistogram(interval);
+            line.append(String.format(" %s=%d/p99 %.1fms", recorder.operation().name().toLowerCase(),
+                    interval.getTotalCount(), interval.getValueAtPercentile(99) / 1000.0));
+        }
+        log.info("Interval:{}", line);
+    }
+
+    private void report(long measuredNanos) throws IOException {
+        double seconds = measuredNanos / 1e9;
+        List<EndpointSummary> summaries = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format("%n%-8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+
+        for (EndpointRecorder recorder : recorders.values()) {
+            Histogram total = recorder.total();
+            String name = recorder.operation().name().toLowerCase();
+            EndpointSummary summary = new EndpointSummary(name, total.getTotalCount(), recorder.errors(),
+                    total.getTotalCount() / seconds, millis(total.getValueAtPercentile(50)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                    millis(total.getMaxValue()));
+            summaries.add(summary);
+            table.append(String.format("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, summary.requests(),
+                    summary.errors(), summary.throughput(), summary.p50(), summary.p99(), summary.p999(), summary.max()));
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(options.output().resolve(name + ".hgrm")))) {
+                total.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", Map.of(
+                "baseUrl", options.baseUrl(),
+                "ratePerSecond", options.ratePerSecond(),
+                "durationSeconds", options.duration().toSeconds(),
+                "warmupSeconds", options.warmup().toSeconds(),
+                "mix", options.mix(),
+                "seedRows", options.seedRows(),
+                "randomSeed", options.randomSeed()));
+        result.put("endpoints", summaries);
+        client.objectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(options.output().resolve("summary.json").toFile(), result);
+
+        log.info("Results over {}s, written to {}:{}", Math.round(seconds), options.output().toAbsolutePath(), table);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // the response DTOs are builder-only, so the client reads just the fields it needs into records
+
+    private record Job(UUID id, JobStatus status, long processed, long ratePerSecond, String error) {
+    }
+
+    private record Page(List<Workload.Sampled> content, String nextCursor) {
+    }
+
+    private record Tag(UUID id, String name) {
+    }
+
+    record EndpointSummary(String endpoint, long requests, long errors, double throughput,
+                           double p50, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.digitaltolk.translationapi.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, {@code --name value} pairs. Durations take an {@code s} or {@code m} suffix.
+ */
+record LoadTestOptions(
+        String baseUrl,
+        String username,
+        String password,
+        int ratePerSecond,
+        int maxInFlight,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        int seedRows,
+        int seedLocales,
+        int seedTags,
+        int sampleSize,
+        long randomSeed,
+        Path output
+) {
+
+    private static final Set<String> KNOWN = Set.of(
+            "base-url", "username", "password", "rps", "max-in-flight", "warmup", "duration", "mix",
+            "seed-rows", "seed-locales", "seed-tags", "sample", "random-seed", "output");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value, got " + args[i]);
+            }
+            values.put(args[i].substring(2), args[++i]);
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.getOrDefault("base-url", "http://localhost:8881/v1"),
+                values.getOrDefault("username", "admin"),
+                values.getOrDefault("password", "password"),
+                Integer.parseInt(values.getOrDefault("rps", "100")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "256")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                mix(values.getOrDefault("mix", "get=50,search=25,update=15,create=8,export=2")),
+                Integer.parseInt(values.getOrDefault("seed-rows", "100000")),
+                Integer.parseInt(values.getOrDefault("seed-locales", "4")),
+                Integer.parseInt(values.getOrDefault("seed-tags", "50")),
+                Integer.parseInt(values.getOrDefault("sample", "5000")),
+                Long.parseLong(values.getOrDefault("random-seed", "42")),
+                Path.of(values.getOrDefault("output", "target/loadtest"))
+        );
+        values.keySet().removeAll(KNOWN);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+
+    private static Duration duration(String value) {
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+}
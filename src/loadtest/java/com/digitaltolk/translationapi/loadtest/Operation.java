@@ -0,0 +1,12 @@
+package com.digitaltolk.translationapi.loadtest;
+
+/**
+ * The endpoints the workload mixes; each gets its own latency histogram.
+ */
+enum Operation {
+    GET,
+    SEARCH,
+    UPDATE,
+    CREATE,
+    EXPORT
+}
@@ -0,0 +1,139 @@
+package com.digitaltolk.translationapi.loadtest;
+
+import com.digitaltolk.translationapi.dto.TranslationRequest;
+import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the next request of the mix from a sample of existing translations. Operations are drawn from a
+ * seeded {@link Random}, so two runs against the same dataset issue the same sequence of reads; created
+ * keys carry a run id so repeated runs do not collide on the unique (key, locale) constraint. Only the
+ * driver thread calls it.
+ */
+class Workload {
+
+    private static final int CREATE_BATCH_SIZE = 10;
+    private static final int SEARCH_PAGE_SIZE = 50;
+
+    private final LoadTestClient client;
+    private final List<Sampled> sample;
+    private final Map<String, UUID> tagIds;
+    private final List<String> tags;
+    private final List<String> locales;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private long created;
+
+    Workload(LoadTestClient client, List<Sampled> sample, Map<String, UUID> tagIds, Map<Operation, Integer> mix) {
+        if (sample.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty, seed it first");
+        }
+        this.client = client;
+        this.sample = sample;
+        this.tagIds = tagIds;
+        this.tags = List.copyOf(tagIds.keySet());
+        this.locales = sample.stream().map(Sampled::locale).distinct().sorted().toList();
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    Operation nextOperation(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; ; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+    }
+
+    HttpRequest request(Operation operation, Random random) {
+        return switch (operation) {
+            case GET -> client.get("/api/translations/" + pick(random).id());
+            case SEARCH -> client.post("/api/translations/search", search(random));
+            case UPDATE -> update(random);
+            case CREATE -> client.post("/api/translations", create(random));
+            case EXPORT -> export(random);
+        };
+    }
+
+    private TranslationSearchRequest search(Random random) {
+        TranslationSearchRequest request = new TranslationSearchRequest();
+        request.setSize(SEARCH_PAGE_SIZE);
+        // half point lookups by key, half browsing one locale by tag
+        if (random.nextBoolean() || tags.isEmpty()) {
+            request.setKeys(List.of(pick(random).key(), pick(random).key(), pick(random).key()));
+        } else {
+            request.setLocales(List.of(pick(locales, random)));
+            request.setTags(Set.of(pick(tags, random)));
+        }
+        return request;
+    }
+
+    private HttpRequest update(Random random) {
+        Sampled translation = pick(random);
+        TranslationRequest request = new TranslationRequest();
+        request.setKey(translation.key());
+        request.setLocale(translation.locale());
+        request.setValue("updated " + runId + " " + random.nextInt(1_000_000));
+        // an update replaces the tags, so send the current ones back
+        request.setTagIds(translation.tags() == null ? Set.of() : translation.tags().stream()
+                .map(tagIds::get)
+                .collect(Collectors.toSet()));
+        return client.put("/api/translations/" + translation.id(), request);
+    }
+
+    private List<TranslationRequest> create(Random random) {
+        List<TranslationRequest> batch = new ArrayList<>(CREATE_BATCH_SIZE);
+        long first = created;
+        created += CREATE_BATCH_SIZE;
+        for (int i = 0; i < CREATE_BATCH_SIZE; i++) {
+            TranslationRequest request = new TranslationRequest();
+            request.setKey("loadtest." + runId + "." + (first + i));
+            request.setLocale(pick(locales, random));
+            request.setValue("created " + runId + " " + (first + i));
+            request.setTagIds(tags.isEmpty() ? Set.of() : Set.of(tagIds.get(pick(tags, random))));
+            batch.add(request);
+        }
+        return batch;
+    }
+
+    private HttpRequest export(Random random) {
+        StringBuilder path = new StringBuilder("/api/translations/export?locales=")
+                .append(encode(pick(locales, random)));
+        if (!tags.isEmpty()) {
+            path.append("&tags=").append(encode(pick(tags, random)));
+        }
+        return client.get(path.toString());
+    }
+
+    private Sampled pick(Random random) {
+        return pick(sample, random);
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    record Sampled(UUID id, String key, String locale, Set<String> tags) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.digitaltolk.translationapi.cache;
+
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the tag table, by name and by id. Loaded once the application is ready, or on first use,
+ * and then kept in step by applying each committed {@link TagsChangedEvent}. Reads take no locks: changes
+ * swap in a new immutable snapshot, so a reader sees every tag of one version or none of it.
+ * <p>
+ * Loading and applying changes share a lock, so a change committed while the table is being read is
+ * applied after the load and can't be lost.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagIndex {
+
+    private final TagRepository tagRepository;
+
+    // seeded from the clock like CatalogVersion, so versions keep increasing across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        snapshot();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public Optional<UUID> idOf(String name) {
+        return Optional.ofNullable(snapshot().idsByName.get(name));
+    }
+
+    public Optional<String> nameOf(UUID id) {
+        return Optional.ofNullable(snapshot().namesById.get(id));
+    }
+
+    public boolean contains(String name) {
+        return snapshot().idsByName.containsKey(name);
+    }
+
+    /**
+     * Every tag, id to name, in load order followed by creation order.
+     */
+    public Map<UUID, String> all() {
+        return snapshot().namesById;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        synchronized (this) {
+            if (snapshot == null) {
+                // the first read loads the table, this change included
+                return;
+            }
+            Map<UUID, String> namesById = new LinkedHashMap<>(snapshot.namesById);
+            Map<String, UUID> idsByName = new LinkedHashMap<>(snapshot.idsByName);
+            for (UUID id : event.deleted()) {
+                String name = namesById.remove(id);
+                if (name != null) idsByName.remove(name, id);
+            }
+            event.saved().forEach((id, name) -> {
+                String previous = namesById.put(id, name);
+                if (previous != null && !previous.equals(name)) idsByName.remove(previous, id);
+                idsByName.put(name, id);
+            });
+            snapshot = new Snapshot(namesById, idsByName);
+            version.incrementAndGet();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                Map<UUID, String> namesById = new LinkedHashMap<>();
+                Map<String, UUID> idsByName = new LinkedHashMap<>();
+                for (Tag tag : tagRepository.findAll()) {
+                    namesById.put(tag.getId(), tag.getName());
+                    idsByName.put(tag.getName(), tag.getId());
+                }
+                snapshot = new Snapshot(namesById, idsByName);
+                version.incrementAndGet();
+            }
+            return snapshot;
+        }
+    }
+
+    private record Snapshot(Map<UUID, String> namesById, Map<String, UUID> idsByName) {
+
+        Snapshot {
+            namesById = Collections.unmodifiableMap(namesById);
+            idsByName = Collections.unmodifiableMap(idsByName);
+        }
+    }
+}
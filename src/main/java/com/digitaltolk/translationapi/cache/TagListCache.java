@@ -0,0 +1,54 @@
+package com.digitaltolk.translationapi.cache;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.service.TagService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The serialized {@code GET /api/tags} body, plain and gzipped, built once per {@link TagIndex} version
+ * instead of serializing and compressing every tag on each request.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagListCache {
+
+    private final TagService tagService;
+    private final ObjectMapper objectMapper;
+    private final Gzip gzip;
+    private final TagIndex tagIndex;
+
+    private volatile Snapshot snapshot;
+
+    public long currentVersion() {
+        return tagIndex.version();
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == tagIndex.version()) {
+            return current;
+        }
+        synchronized (this) {
+            // read the version before the data so a concurrent change can only make the snapshot look older
+            long wanted = tagIndex.version();
+            if (snapshot != null && snapshot.version() == wanted) {
+                return snapshot;
+            }
+            try {
+                byte[] identity = objectMapper.writeValueAsBytes(tagService.getAllTags());
+                snapshot = new Snapshot(wanted, identity, gzip.precompress(identity));
+                return snapshot;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    public record Snapshot(long version, byte[] identity, byte[] gzip) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.digitaltolk.translationapi.cache;
+
+import com.digitaltolk.translationapi.dto.CacheStatsResponse;
+import com.digitaltolk.translationapi.dto.TranslationResponse;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of single translations by id, bounded by an estimate of the heap it holds and evicted
+ * with Caffeine's W-TinyLFU, so a burst of one-off lookups doesn't push out the hot UI strings.
+ * A secondary index maps {@code (key, locale)} to the id of a cached entry.
+ * <p>
+ * Entries are dropped once a write commits. A load still running at that moment is detached from the cache
+ * and its result handed only to the callers already waiting on it, so a value read before the commit can't
+ * outlive it.
+ * <p>
+ * Loads run on the calling thread but outside the map's bin lock: the cache only holds a placeholder future
+ * while the loader waits for a pooled connection. Loading inside {@code computeIfAbsent} deadlocked under
+ * load, with loaders holding bin locks while waiting for a connection and committing writers holding the
+ * connections while waiting for those bin locks to invalidate.
+ */
+@Component
+public class TranslationCache implements MeterBinder {
+
+    // rough heap cost of a response object, its UUID, strings and tag set, before the characters themselves
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int TAG_OVERHEAD_BYTES = 56;
+
+    private final long maxWeightBytes;
+    private final AsyncCache<UUID, TranslationResponse> cache;
+    private final Map<KeyLocale, UUID> byKeyLocale = new ConcurrentHashMap<>();
+
+    public TranslationCache(@Value("${translation.cache.max-weight-bytes:33554432}") long maxWeightBytes) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((UUID id, TranslationResponse response) -> weigh(response))
+                .evictionListener((UUID id, TranslationResponse response, RemovalCause cause) -> {
+                    if (id != null && response != null) {
+                        byKeyLocale.remove(KeyLocale.of(response), id);
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "translation");
+    }
+
+    /**
+     * Returns the cached translation or loads it once, even when several threads miss at the same time.
+     * Exceptions thrown by {@code loader} reach the caller and nothing is cached.
+     */
+    public TranslationResponse get(UUID id, Function<UUID, TranslationResponse> loader) {
+        CompletableFuture<TranslationResponse> placeholder = new CompletableFuture<>();
+        CompletableFuture<TranslationResponse> future = cache.get(id, (key, executor) -> placeholder);
+        if (future == placeholder) {
+            try {
+                placeholder.complete(loader.apply(id));
+            } catch (RuntimeException | Error ex) {
+                placeholder.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        TranslationResponse response = join(future);
+        if (response != null && response.getKey() != null && response.getLocale() != null) {
+            byKeyLocale.put(KeyLocale.of(response), id);
+        }
+        return response;
+    }
+
+    /**
+     * Looks a translation up by {@code (key, locale)}. On an index miss {@code idLoader} resolves the id,
+     * then the entry is read through {@link #get(UUID, Function)}.
+     */
+    public Optional<TranslationResponse> getByKey(String key, String locale, Supplier<Optional<UUID>> idLoader,
+                                                  Function<UUID, TranslationResponse> loader) {
+        KeyLocale keyLocale = new KeyLocale(key, locale);
+        UUID cachedId = byKeyLocale.get(keyLocale);
+        if (cachedId != null) {
+            TranslationResponse response = get(cachedId, loader);
+            if (response != null && keyLocale.equals(KeyLocale.of(response))) {
+                return Optional.of(response);
+            }
+            // the row was renamed since the index entry was written
+            byKeyLocale.remove(keyLocale, cachedId);
+        }
+        return idLoader.get().map(id -> get(id, loader));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        if (event.translationIds().isEmpty()) {
+            invalidateAll();
+        } else {
+            event.translationIds().forEach(this::invalidate);
+        }
+    }
+
+    // entries carry tag names; which ones a renamed or deleted tag was on isn't known without reading them all
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        if (event.changesTranslations()) {
+            invalidateAll();
+        }
+    }
+
+    public void invalidate(UUID id) {
+        // never wait for a running load here, the caller may hold the connection that load is waiting for
+        CompletableFuture<TranslationResponse> removed = cache.asMap().remove(id);
+        if (removed != null) {
+            removed.thenAccept(response -> {
+                if (response != null) {
+                    byKeyLocale.remove(KeyLocale.of(response), id);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        byKeyLocale.clear();
+    }
+
+    public CacheStatsResponse stats() {
+        // run pending evictions so size and weight are exact
+        Cache<UUID, TranslationResponse> cache = this.cache.synchronous();
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .evictionCount(stats.evictionCount())
+                .evictionWeightBytes(stats.evictionWeight())
+                .entries(cache.estimatedSize())
+                .weightBytes(cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .maxWeightBytes(maxWeightBytes)
+                .build();
+    }
+
+    private static TranslationResponse join(CompletableFuture<TranslationResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    static int weigh(TranslationResponse response) {
+        int weight = ENTRY_OVERHEAD_BYTES + chars(response.getKey()) + chars(response.getLocale()) + chars(response.getValue());
+        if (response.getTags() != null) {
+            for (String tag : response.getTags()) {
+                weight += TAG_OVERHEAD_BYTES + chars(tag);
+            }
+        }
+        return weight;
+    }
+
+    // compact strings take a byte per Latin-1 character, two otherwise; two keeps the bound conservative
+    private static int chars(String value) {
+        return value == null ? 0 : 2 * value.length();
+    }
+
+    private record KeyLocale(String key, String locale) {
+        static KeyLocale of(TranslationResponse response) {
+            return new KeyLocale(response.getKey(), response.getLocale());
+        }
+    }
+}
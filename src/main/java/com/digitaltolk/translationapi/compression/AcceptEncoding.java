@@ -0,0 +1,42 @@
+package com.digitaltolk.translationapi.compression;
+
+/**
+ * Reads the {@code Accept-Encoding} request header.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Whether gzip has a non-zero weight: its own if listed, otherwise that of {@code *}. A weight that is not
+     * a number makes its coding unacceptable rather than failing the request.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) return false;
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            double weight = weight(parts);
+            if (name.equalsIgnoreCase("gzip")) return weight > 0;
+            if (name.equals("*")) wildcard = weight;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.digitaltolk.translationapi.compression;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip at two levels. Payloads compressed once and served many times (cached exports, bundles, the tag
+ * list) pay for their level once per catalog version; payloads compressed per request (streamed exports)
+ * pay on every response and default to the fastest level. Everything else is left to the container.
+ */
+@Component
+public class Gzip {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int precompressedLevel;
+    private final int streamingLevel;
+
+    public Gzip(@Value("${translation.compression.precompressed-level:6}") int precompressedLevel,
+                @Value("${translation.compression.streaming-level:1}") int streamingLevel) {
+        this.precompressedLevel = precompressedLevel;
+        this.streamingLevel = streamingLevel;
+    }
+
+    public byte[] precompress(byte[] identity) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, identity.length / 8));
+        try (OutputStream gzip = precompressing(out, BUFFER_SIZE)) {
+            gzip.write(identity);
+        }
+        return out.toByteArray();
+    }
+
+    public OutputStream precompressing(OutputStream out, int bufferSize) throws IOException {
+        return open(out, bufferSize, precompressedLevel);
+    }
+
+    /**
+     * A stream over {@code out}, which is left open: callers {@link Output#finish()} it and then
+     * {@link Output#end()} it, in a {@code finally}.
+     */
+    public Output streaming(OutputStream out) throws IOException {
+        return open(out, BUFFER_SIZE, streamingLevel);
+    }
+
+    private static Output open(OutputStream out, int bufferSize, int level) throws IOException {
+        return new Output(out, bufferSize, level);
+    }
+
+    public static final class Output extends GZIPOutputStream {
+
+        private Output(OutputStream out, int bufferSize, int level) throws IOException {
+            super(out, bufferSize);
+            def.setLevel(level);
+        }
+
+        /**
+         * Frees the deflater's native memory without closing the underlying stream, which {@link #finish()}
+         * leaves to {@link #close()}. The stream can't be written to afterwards.
+         */
+        public void end() {
+            def.end();
+        }
+    }
+}
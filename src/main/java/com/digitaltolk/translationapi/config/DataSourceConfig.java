@@ -0,0 +1,67 @@
+package com.digitaltolk.translationapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Two Hikari pools behind the application's DataSource. Read-only transactions (Spring Data's find
+ * methods, {@code @Transactional(readOnly = true)} services) take connections from {@code read}, everything
+ * else from {@code write}, so long streaming reads such as exports can't use up the connections writes are
+ * waiting for. The dictionary and posting lists refresh in transactions that are not read-only, since they
+ * read right after a commit and must see it.
+ * <p>
+ * {@code translation.datasource.read.url} points the read pool at a standby. Requests read from it straight
+ * after a write and cache what they got (translations, exports per catalog version), so the primary has to
+ * run with {@code synchronous_commit = remote_apply} for it: with {@code on}, or an asynchronous standby, a
+ * commit is acknowledged before the standby shows it, and stale rows would be cached as current.
+ * <p>
+ * The read pool is configured by {@code spring.datasource.hikari.*} first and
+ * {@code translation.datasource.read.hikari.*} on top. With {@code translation.datasource.read.enabled=false}
+ * every connection comes from the write pool.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "translation.datasource.read.enabled", havingValue = "true", matchIfMissing = true)
+    public HikariDataSource readDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource read = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(read));
+        binder.bind("translation.datasource.read.hikari", Bindable.ofInstance(read));
+        String url = environment.getProperty("translation.datasource.read.url");
+        if (StringUtils.hasText(url)) {
+            read.setJdbcUrl(url);
+        }
+        return read;
+    }
+
+    // connections are only taken from a pool on the first statement, once the transaction is known to be
+    // read-only or not; transactions that never reach the database don't take one at all
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource write,
+                                 @Qualifier("readDataSource") ObjectProvider<DataSource> read) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(write, read.getIfAvailable(() -> write)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.digitaltolk.translationapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out connections from {@code read} inside read-only transactions and from {@code write} everywhere
+ * else, including statements outside any transaction. The flag is only set once the transaction has begun,
+ * so this has to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that asks for the connection on the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ReadWriteRoutingDataSource(DataSource write, DataSource read) {
+        setTargetDataSources(Map.of(false, write, true, read));
+        setDefaultTargetDataSource(write);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
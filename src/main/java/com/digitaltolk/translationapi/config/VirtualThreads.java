@@ -0,0 +1,26 @@
+package com.digitaltolk.translationapi.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reaches {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively, so the code base keeps compiling
+ * for Java 17 while the virtual-thread mode can be switched on when running on Java 21.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("translation.threads.virtual needs Java 21 or newer, running on "
+                    + Runtime.version());
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Could not create a virtual thread executor", ex);
+        }
+    }
+}
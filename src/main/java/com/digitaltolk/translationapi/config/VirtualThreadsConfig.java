@@ -0,0 +1,72 @@
+package com.digitaltolk.translationapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in mode, {@code translation.threads.virtual=true} on Java 21+: Tomcat handles each request and every
+ * {@code @Async}, job and streamed export task on its own virtual thread, so a long export no longer holds
+ * one of a few hundred platform threads that cheap lookups are queueing for. JDBC stays the limit, so each
+ * pool is wrapped in a {@link BoundedDataSource} with as many permits as it has connections.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "translation.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        log.info("Running requests and async tasks on virtual threads");
+        return VirtualThreads.newVirtualThreadPerTaskExecutor();
+    }
+
+    // replaces Boot's pooled applicationTaskExecutor, which backs @Async, the job registry and MVC async
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public TaskExecutorAdapter applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Value("${translation.threads.max-jdbc-concurrency:0}") int maxJdbcConcurrency) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // wrappers such as the routing DataSource are left alone, the pools behind them are bounded
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                int permits = maxJdbcConcurrency;
+                Duration timeout = Duration.ofSeconds(30);
+                if (bean instanceof HikariDataSource hikari) {
+                    // an unset pool size only becomes Hikari's default of 10 when the pool starts
+                    permits = permits > 0 ? permits : hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : 10;
+                    timeout = Duration.ofMillis(hikari.getConnectionTimeout());
+                }
+                if (permits <= 0) {
+                    return bean;
+                }
+                log.info("Bounding DataSource '{}' to {} concurrent connections", beanName, permits);
+                return new BoundedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.digitaltolk.translationapi.controller;
+
+import com.digitaltolk.translationapi.compression.AcceptEncoding;
+import com.digitaltolk.translationapi.dto.ExportBundleResponse;
+import com.digitaltolk.translationapi.dto.ExportRequest;
+import com.digitaltolk.translationapi.export.BundleFileSender;
+import com.digitaltolk.translationapi.export.ExportBundle;
+import com.digitaltolk.translationapi.export.ExportBundleStore;
+import com.digitaltolk.translationapi.export.ExportKey;
+import com.digitaltolk.translationapi.export.ExportMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pre-built export bundles. {@code POST} returns the bundle's stable id and starts a rebuild in the background
+ * when the catalog changed; the locale files are then served straight from disk, with HTTP range support.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportBundleStore bundleStore;
+    private final BundleFileSender fileSender;
+    private final ExportMetrics exportMetrics;
+
+    @PostMapping
+    public ResponseEntity<ExportBundleResponse> requestExport(@RequestBody(required = false) ExportRequest request) {
+        ExportRequest exportRequest = request != null ? request : new ExportRequest();
+        ExportKey key = ExportKey.of(exportRequest.getLocales(), exportRequest.getTags(), exportRequest.isFallback());
+        if (key.fallback() && key.locales().isEmpty()) {
+            throw new RuntimeException("Locales are required for a fallback export");
+        }
+
+        ExportBundleStore.Status status = bundleStore.request(key);
+        ResponseEntity.BodyBuilder builder = status.upToDate() ? ResponseEntity.ok() : ResponseEntity.accepted();
+        return builder
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/exports/{id}")
+                        .buildAndExpand(status.id())
+                        .toUri())
+                .body(ExportBundleResponse.of(status));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportBundleResponse> getExport(@PathVariable UUID id) {
+        return ResponseEntity.ok(bundleStore.find(id)
+                .map(ExportBundleResponse::of)
+                .orElseThrow(() -> new RuntimeException("Export not found")));
+    }
+
+    @GetMapping("/{id}/{locale}")
+    public void download(@PathVariable UUID id, @PathVariable String locale,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportBundle bundle = bundleStore.ready(id)
+                .orElseThrow(() -> new RuntimeException("Export not found or not built yet"));
+        ExportBundle.LocaleFile file = bundle.file(locale)
+                .orElseThrow(() -> new RuntimeException("Locale not found in export"));
+
+        boolean gzip = AcceptEncoding.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Path path = gzip ? file.gzip() : file.identity();
+        long length = gzip ? file.gzipBytes() : file.identityBytes();
+        String etag = "\"b" + bundle.version() + (gzip ? "-gzip" : "") + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        long start = 0;
+        long count = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // a stale If-Range or several ranges get the whole file, which RFC 9110 allows
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException ex) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                long end;
+                try {
+                    start = requested.getRangeStart(length);
+                    end = requested.getRangeEnd(length);
+                } catch (IllegalArgumentException ex) {
+                    start = length;
+                    end = -1;
+                }
+                if (start >= length || end < start) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                count = end - start + 1;
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        exportMetrics.recordBundle(count, gzip);
+        fileSender.send(path, start, count, request, response);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+}
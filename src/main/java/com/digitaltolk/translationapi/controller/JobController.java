@@ -0,0 +1,27 @@
+package com.digitaltolk.translationapi.controller;
+
+import com.digitaltolk.translationapi.dto.JobResponse;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+    private final JobRegistry jobRegistry;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponse> getJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(jobRegistry.find(id)
+                .map(JobResponse::of)
+                .orElseThrow(() -> new RuntimeException("Job not found")));
+    }
+}
@@ -0,0 +1,70 @@
+package com.digitaltolk.translationapi.controller;
+
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
+import com.digitaltolk.translationapi.dto.DictionaryStatsResponse;
+import com.digitaltolk.translationapi.dto.ResolveRequest;
+import com.digitaltolk.translationapi.dto.ResolveResponse;
+import com.digitaltolk.translationapi.dto.ResolvedTranslation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value lookups by key and locale for clients rendering UI text, served from {@link TranslationDictionary}.
+ */
+@RestController
+@RequestMapping("/api/resolve")
+@RequiredArgsConstructor
+public class ResolveController {
+
+    private final TranslationDictionary translationDictionary;
+
+    @GetMapping
+    public ResponseEntity<ResolvedTranslation> resolve(
+            @RequestParam String key,
+            @RequestParam String locale,
+            @RequestParam(defaultValue = "false") boolean fallback
+    ) {
+
+        return ResponseEntity.ok(translationDictionary.resolve(locale, key, fallback)
+                .orElseThrow(() -> new RuntimeException("Translation not found")));
+    }
+
+    @PostMapping
+    public ResponseEntity<ResolveResponse> resolveAll(@Valid @RequestBody ResolveRequest resolveRequest) {
+
+        String locale = resolveRequest.getLocale();
+        Map<String, ResolvedTranslation> resolved = translationDictionary.resolveAll(
+                locale, resolveRequest.getKeys(), resolveRequest.isFallback());
+
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, String> fallbacks = new LinkedHashMap<>();
+        resolved.forEach((key, translation) -> {
+            values.put(key, translation.getValue());
+            if (!translation.getResolvedLocale().equals(locale)) {
+                fallbacks.put(key, translation.getResolvedLocale());
+            }
+        });
+        List<String> missing = resolveRequest.getKeys().stream()
+                .filter(key -> !resolved.containsKey(key))
+                .distinct()
+                .toList();
+        return ResponseEntity.ok(ResolveResponse.builder()
+                .locale(locale)
+                .values(values)
+                .fallbacks(fallbacks)
+                .missing(missing)
+                .build());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<DictionaryStatsResponse> stats() {
+
+        return ResponseEntity.ok(translationDictionary.stats());
+    }
+}
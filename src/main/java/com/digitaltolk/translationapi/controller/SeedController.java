@@ -1,11 +1,18 @@
 package com.digitaltolk.translationapi.controller;
 
+import com.digitaltolk.translationapi.dto.JobResponse;
+import com.digitaltolk.translationapi.dto.SeedRequest;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
 import com.digitaltolk.translationapi.seed.DataSeeder;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/api/seeder")
@@ -13,10 +20,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class SeedController {
 
     private final DataSeeder dataSeeder;
+    private final JobRegistry jobRegistry;
 
     @PostMapping("/seed")
-    public ResponseEntity<String> triggerSeed() {
-        dataSeeder.run();
-        return ResponseEntity.ok("Seeding triggered successfully.");
+    public ResponseEntity<JobResponse> triggerSeed(@Valid @RequestBody(required = false) SeedRequest request) {
+        SeedRequest seedRequest = request != null ? request : new SeedRequest();
+        BackgroundJob job = jobRegistry.submit("seed", seedRequest.getRows(), j -> dataSeeder.run(seedRequest, j));
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/jobs/{id}")
+                        .buildAndExpand(job.getId())
+                        .toUri())
+                .body(JobResponse.of(job));
     }
 }
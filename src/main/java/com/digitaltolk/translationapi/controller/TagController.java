@@ -1,13 +1,23 @@
 package com.digitaltolk.translationapi.controller;
 
+import com.digitaltolk.translationapi.cache.TagListCache;
+import com.digitaltolk.translationapi.compression.AcceptEncoding;
+import com.digitaltolk.translationapi.dto.JobResponse;
+import com.digitaltolk.translationapi.dto.TagMatch;
 import com.digitaltolk.translationapi.dto.TagRequest;
 import com.digitaltolk.translationapi.dto.TagResponse;
 import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.job.BackgroundJob;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.service.TagService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,6 +29,7 @@ public class TagController {
 
     private final TagService tagService;
     private final TagRepository tagRepository;
+    private final TagListCache tagListCache;
 
     @PostMapping
     public ResponseEntity<List<TagResponse>> createTags(@RequestBody List<TagRequest> tagRequests) {
@@ -27,9 +38,31 @@ public class TagController {
     }
 
     @GetMapping
-    public ResponseEntity<List<TagResponse>> getAllTags() {
+    public ResponseEntity<byte[]> getAllTags(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
 
-        return ResponseEntity.ok(tagService.getAllTags());
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        long version = tagListCache.currentVersion();
+        if (matches(ifNoneMatch, version)) {
+            return tagListResponse(HttpStatus.NOT_MODIFIED, version, gzip).build();
+        }
+
+        TagListCache.Snapshot snapshot = tagListCache.get();
+        ResponseEntity.BodyBuilder builder = tagListResponse(HttpStatus.OK, snapshot.version(), gzip);
+        if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return builder.contentType(MediaType.APPLICATION_JSON).body(gzip ? snapshot.gzip() : snapshot.identity());
+    }
+
+    @GetMapping("/translations")
+    public ResponseEntity<Map<String, Map<String, String>>> getTranslations(
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "ANY") TagMatch match,
+            @RequestParam(required = false) List<String> locale
+    ) {
+
+        return ResponseEntity.ok(tagService.getTranslations(tags, match, locale));
     }
 
     @GetMapping("/{id}")
@@ -38,12 +71,27 @@ public class TagController {
         return ResponseEntity.ok(tagService.getTag(id));
     }
 
+    @GetMapping("/{id}/translations")
+    public ResponseEntity<Map<String, Map<String, String>>> getTranslations(
+            @PathVariable UUID id,
+            @RequestParam(required = false) List<String> locale
+    ) {
+
+        return ResponseEntity.ok(tagService.getTranslations(id, locale));
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTag(@PathVariable UUID id) {
+    public ResponseEntity<JobResponse> deleteTag(@PathVariable UUID id) {
+
+        return tagService.deleteTag(id)
+                .map(this::accepted)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        if(tagService.deleteTag(id)) return ResponseEntity.noContent().build();
+    @PostMapping("/{id}/merge")
+    public ResponseEntity<JobResponse> mergeTag(@PathVariable UUID id, @RequestParam UUID into) {
 
-        return ResponseEntity.notFound().build();
+        return accepted(tagService.mergeTag(id, into));
     }
 
     @PutMapping("/{id}")
@@ -51,4 +99,32 @@ public class TagController {
 
         return ResponseEntity.ok(tagService.updateTag(id, tagRequest));
     }
+
+    private ResponseEntity<JobResponse> accepted(BackgroundJob job) {
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/jobs/{id}")
+                        .buildAndExpand(job.getId())
+                        .toUri())
+                .body(JobResponse.of(job));
+    }
+
+    private ResponseEntity.BodyBuilder tagListResponse(HttpStatus status, long version, boolean gzip) {
+
+        return ResponseEntity.status(status)
+                .eTag(gzip ? "t" + version + "-gzip" : "t" + version)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static boolean matches(String ifNoneMatch, long version) {
+
+        if (ifNoneMatch == null) return false;
+        String identityTag = "\"t" + version + "\"";
+        String gzipTag = "\"t" + version + "-gzip\"";
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(identityTag) || tag.equals(gzipTag));
+    }
 }
\ No newline at end of file
@@ -1,9 +1,23 @@
 package com.digitaltolk.translationapi.controller;
 
+import com.digitaltolk.translationapi.cache.TranslationCache;
+import com.digitaltolk.translationapi.compression.AcceptEncoding;
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.CacheStatsResponse;
+import com.digitaltolk.translationapi.dto.CursorPagedResponse;
 import com.digitaltolk.translationapi.dto.PagedResponse;
+import com.digitaltolk.translationapi.dto.TranslationDeltaResponse;
 import com.digitaltolk.translationapi.dto.TranslationRequest;
 import com.digitaltolk.translationapi.dto.TranslationResponse;
 import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.export.CatalogVersion;
+import com.digitaltolk.translationapi.export.ExportCache;
+import com.digitaltolk.translationapi.export.ExportFormat;
+import com.digitaltolk.translationapi.export.ExportKey;
+import com.digitaltolk.translationapi.export.ExportMetrics;
+import com.digitaltolk.translationapi.export.ExportSnapshot;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.service.TranslationService;
 import jakarta.validation.Valid;
@@ -12,9 +26,15 @@ import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -28,6 +48,12 @@ public class TranslationController {
 
     private final TranslationService translationService;
     private final TagRepository tagRepository;
+    private final ExportCache exportCache;
+    private final CatalogVersion catalogVersion;
+    private final TranslationCache translationCache;
+    private final ExportMetrics exportMetrics;
+    private final Gzip compression;
+    private final TranslationExportWriter exportWriter;
 
     @GetMapping("/status")
     public String test(){
@@ -40,6 +66,12 @@ public class TranslationController {
         return ResponseEntity.ok(translationService.createTranslations(translationRequests));
     }
 
+    @PostMapping("/upsert")
+    public ResponseEntity<BulkUpsertResponse> upsert(@RequestBody List<TranslationRequest> translationRequests) {
+
+        return ResponseEntity.ok(translationService.upsertTranslations(translationRequests));
+    }
+
     @GetMapping
     public ResponseEntity<PagedResponse<TranslationResponse>> getAllTranslations(
         @RequestParam(defaultValue = "0") @Min(0) int page,
@@ -49,6 +81,27 @@ public class TranslationController {
         return ResponseEntity.ok(translationService.getAllTranslations(PageRequest.of(page, size)));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<TranslationResponse>> scrollTranslations(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int size
+    ) {
+
+        return ResponseEntity.ok(translationService.scrollTranslations(cursor, size));
+    }
+
+    @GetMapping("/lookup")
+    public ResponseEntity<TranslationResponse> lookup(@RequestParam String key, @RequestParam String locale) {
+
+        return ResponseEntity.ok(translationService.getTranslation(key, locale));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponse> cacheStats() {
+
+        return ResponseEntity.ok(translationCache.stats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TranslationResponse> getTranslation(@PathVariable UUID id) {
 
@@ -84,8 +137,90 @@ public class TranslationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/search/scroll")
+    public ResponseEntity<CursorPagedResponse<TranslationResponse>> scrollSearch(@Valid @RequestBody TranslationSearchRequest translationSearchRequest) {
+
+        return ResponseEntity.ok(translationService.scrollSearch(translationSearchRequest));
+    }
+
     @GetMapping("/export")
-    public ResponseEntity<Map<String, Map<String, String>>> exportTranslations() {
-        return ResponseEntity.ok(translationService.exportTranslations());
+    public ResponseEntity<StreamingResponseBody> exportTranslations(
+            @RequestParam(required = false) List<String> locales,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "false") boolean fallback,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        ExportFormat format = ExportFormat.negotiate(accept);
+        long version = catalogVersion.current();
+        if (matches(ifNoneMatch, version, format)) {
+            return exportResponse(HttpStatus.NOT_MODIFIED, version, format, gzip).build();
+        }
+
+        ExportSnapshot snapshot = exportCache.get(ExportKey.of(locales, tags, fallback), format);
+        if (snapshot != null) {
+            ResponseEntity.BodyBuilder builder = exportResponse(HttpStatus.OK, snapshot.getVersion(), format, gzip);
+            if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            byte[] payload = gzip ? snapshot.getGzip() : snapshot.getIdentity();
+            exportMetrics.recordCached(payload, gzip);
+            // declared as StreamingResponseBody for both paths: with ResponseEntity<?> the streaming handler
+            // doesn't apply and a streamed body was serialized by Jackson as an empty bean
+            return builder.contentType(format.mediaType())
+                    .contentLength(payload.length)
+                    .body(out -> out.write(payload));
+        }
+
+        StreamingResponseBody export = out -> translationService.exportRows(locales, tags, fallback,
+                rows -> exportWriter.write(rows, out, format));
+        ResponseEntity.BodyBuilder builder = exportResponse(HttpStatus.OK, version, format, gzip);
+        if (!gzip) {
+            return builder.contentType(format.mediaType()).body(exportMetrics.recordStreamed(export, false));
+        }
+        // compressed here rather than by the container, so the gzip ETag variant matches the body
+        StreamingResponseBody body = out -> {
+            Gzip.Output compressed = compression.streaming(out);
+            try {
+                export.writeTo(compressed);
+                compressed.finish();
+            } finally {
+                // the response stream stays open for the container, so the deflater is ended by hand
+                compressed.end();
+            }
+        };
+        return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentType(format.mediaType())
+                .body(exportMetrics.recordStreamed(body, true));
+    }
+
+    @GetMapping("/export/changes")
+    public ResponseEntity<TranslationDeltaResponse> exportChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) List<String> locales,
+            @RequestParam(required = false) String page
+    ) {
+
+        return ResponseEntity.ok(translationService.exportChanges(since, locales, page));
+    }
+
+    private ResponseEntity.BodyBuilder exportResponse(HttpStatus status, long version, ExportFormat format, boolean gzip) {
+
+        String tag = "v" + version + format.etagSuffix();
+        return ResponseEntity.status(status)
+                .eTag(gzip ? tag + "-gzip" : tag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static boolean matches(String ifNoneMatch, long version, ExportFormat format) {
+
+        if (ifNoneMatch == null) return false;
+        String identityTag = "\"v" + version + format.etagSuffix() + "\"";
+        String gzipTag = "\"v" + version + format.etagSuffix() + "-gzip\"";
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(identityTag) || tag.equals(gzipTag));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package com.digitaltolk.translationapi.dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable key to value map for one locale. Keys and values live as UTF-8 in a single {@code byte[]}
+ * arena, entry after entry as {@code [key length][value length][key][value]} with varint lengths, and an
+ * open-addressing table of arena offsets finds them. Compared to a {@code HashMap<String, String>} this
+ * saves the two String objects, their arrays and the node per entry, and gives the GC three arrays to
+ * trace instead of millions of objects.
+ */
+final class LocaleDictionary {
+
+    static final LocaleDictionary EMPTY = new Builder().build();
+
+    // array header of a byte[] or int[] on a 64-bit JVM with compressed oops
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final byte[] arena;
+    // arena offset + 1 per slot, 0 marks an empty slot
+    private final int[] slots;
+    private final int[] hashes;
+    private final int size;
+
+    private LocaleDictionary(byte[] arena, int[] slots, int[] hashes, int size) {
+        this.arena = arena;
+        this.slots = slots;
+        this.hashes = hashes;
+        this.size = size;
+    }
+
+    String get(String key) {
+        int hash = hash(key);
+        int mask = slots.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == 0) {
+                return null;
+            }
+            if (hashes[i] == hash && keyEquals(slot - 1, key)) {
+                return value(slot - 1);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long heapBytes() {
+        return 3L * ARRAY_HEADER_BYTES + arena.length + 4L * slots.length + 4L * hashes.length;
+    }
+
+    void forEach(BiConsumer<String, String> consumer) {
+        for (int slot : slots) {
+            if (slot != 0) {
+                int offset = slot - 1;
+                int keyLength = readVarint(arena, offset);
+                int position = offset + varintSize(keyLength);
+                int valueLength = readVarint(arena, position);
+                position += varintSize(valueLength);
+                consumer.accept(new String(arena, position, keyLength, StandardCharsets.UTF_8),
+                        new String(arena, position + keyLength, valueLength, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private boolean keyEquals(int offset, String key) {
+        int keyLength = readVarint(arena, offset);
+        int position = offset + varintSize(keyLength);
+        position += varintSize(readVarint(arena, position));
+
+        // ASCII keys, the common case, compare without encoding the lookup key
+        if (keyLength == key.length()) {
+            boolean ascii = true;
+            for (int i = 0; i < keyLength; i++) {
+                char c = key.charAt(i);
+                if (c >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+                if (arena[position + i] != c) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        }
+        byte[] encoded = key.getBytes(StandardCharsets.UTF_8);
+        return encoded.length == keyLength
+                && Arrays.equals(arena, position, position + keyLength, encoded, 0, encoded.length);
+    }
+
+    private String value(int offset) {
+        int keyLength = readVarint(arena, offset);
+        int position = offset + varintSize(keyLength);
+        int valueLength = readVarint(arena, position);
+        position += varintSize(valueLength) + keyLength;
+        return new String(arena, position, valueLength, StandardCharsets.UTF_8);
+    }
+
+    private boolean sameKey(int offset, int otherOffset) {
+        int keyLength = readVarint(arena, offset);
+        int otherKeyLength = readVarint(arena, otherOffset);
+        if (keyLength != otherKeyLength) {
+            return false;
+        }
+        int position = offset + varintSize(keyLength);
+        position += varintSize(readVarint(arena, position));
+        int otherPosition = otherOffset + varintSize(otherKeyLength);
+        otherPosition += varintSize(readVarint(arena, otherPosition));
+        return Arrays.equals(arena, position, position + keyLength, arena, otherPosition, otherPosition + keyLength);
+    }
+
+    static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int readVarint(byte[] bytes, int offset) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[offset++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Collects entries into a growing arena. A key added twice keeps its last value. Not thread-safe.
+     */
+    static final class Builder {
+
+        private byte[] arena = new byte[1024];
+        private int length;
+        private int[] offsets = new int[64];
+        private int[] entryHashes = new int[64];
+        private int count;
+
+        Builder put(String key, String value) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+            ensureArena(10 + keyBytes.length + valueBytes.length);
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                entryHashes = Arrays.copyOf(entryHashes, count * 2);
+            }
+
+            offsets[count] = length;
+            entryHashes[count++] = hash(key);
+            writeVarint(keyBytes.length);
+            writeVarint(valueBytes.length);
+            System.arraycopy(keyBytes, 0, arena, length, keyBytes.length);
+            length += keyBytes.length;
+            System.arraycopy(valueBytes, 0, arena, length, valueBytes.length);
+            length += valueBytes.length;
+            return this;
+        }
+
+        LocaleDictionary build() {
+            // at most half full, so probe chains stay short
+            int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+            int[] slots = new int[capacity];
+            int[] hashes = new int[capacity];
+            byte[] trimmed = Arrays.copyOf(arena, length);
+            LocaleDictionary dictionary = new LocaleDictionary(trimmed, slots, hashes, 0);
+
+            int size = 0;
+            int mask = capacity - 1;
+            for (int entry = 0; entry < count; entry++) {
+                int hash = entryHashes[entry];
+                int offset = offsets[entry];
+                for (int i = hash & mask; ; i = (i + 1) & mask) {
+                    if (slots[i] == 0) {
+                        slots[i] = offset + 1;
+                        hashes[i] = hash;
+                        size++;
+                        break;
+                    }
+                    if (hashes[i] == hash && dictionary.sameKey(slots[i] - 1, offset)) {
+                        slots[i] = offset + 1;
+                        break;
+                    }
+                }
+            }
+            return new LocaleDictionary(trimmed, slots, hashes, size);
+        }
+
+        private void ensureArena(int extra) {
+            if (length + extra > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, length + extra));
+            }
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                arena[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            arena[length++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.digitaltolk.translationapi.dictionary;
+
+import com.digitaltolk.translationapi.dto.DictionaryStatsResponse;
+import com.digitaltolk.translationapi.dto.ResolvedTranslation;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationKey;
+import com.digitaltolk.translationapi.job.CoalescingReloader;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the whole catalog for key lookups without a database round trip. Each locale is an
+ * immutable {@link LocaleDictionary} plus a small overlay of the writes committed since it was built.
+ * Reads take no locks: they check the overlay, then the dictionary. Once an overlay grows past
+ * {@code translation.dictionary.compact-threshold} entries it is folded into a new dictionary.
+ * <p>
+ * The catalog is loaded once the application is ready. Bulk writes that don't report their rows trigger
+ * a full reload in the background; until the first load finishes, lookups go to the database.
+ * <p>
+ * Fallback lookups go through a view per requested locale: the volumes of its {@link LocaleFallback} chain,
+ * in order. Views reference the volumes rather than copying them, so a write to {@code fr} is visible
+ * through {@code fr-CA} right away and nothing has to be rebuilt. Volumes only exist for locales with rows,
+ * and only those locales keep a view; any other requested locale gets a throwaway one, so arbitrary locale
+ * strings from clients don't pile up. A view is rebuilt when a locale gets its first volume.
+ */
+@Slf4j
+@Component
+public class TranslationDictionary implements MeterBinder {
+
+    private final TranslationRepository translationRepository;
+    private final TransactionTemplate refreshTransaction;
+    private final LocaleFallback localeFallback;
+    private final int compactThreshold;
+
+    private final Map<String, LocaleVolume> locales = new ConcurrentHashMap<>();
+    private final Map<String, FallbackView> fallbackViews = new ConcurrentHashMap<>();
+    // bumped whenever a locale gets its volume, so views built without it pick it up
+    private final AtomicLong localeGeneration = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final CoalescingReloader reloader;
+    private volatile boolean ready;
+
+    public TranslationDictionary(TranslationRepository translationRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 TaskExecutor taskExecutor,
+                                 LocaleFallback localeFallback,
+                                 @Value("${translation.dictionary.compact-threshold:4096}") int compactThreshold) {
+        this.translationRepository = translationRepository;
+        // not read-only, so it reads from the primary: a standby may not have applied the commit that
+        // triggered the refresh yet; see DataSourceConfig
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloader = new CoalescingReloader(taskExecutor, this::reload, "Translation dictionary");
+        this.localeFallback = localeFallback;
+        this.compactThreshold = compactThreshold;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("translation.dictionary.entries", this, dictionary -> dictionary.stats().getEntries())
+                .description("Entries in the in-memory dictionary")
+                .register(registry);
+        Gauge.builder("translation.dictionary.heap", this, dictionary -> dictionary.stats().getHeapBytes())
+                .description("Estimated heap held by the in-memory dictionary")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        requestReload();
+    }
+
+    public Optional<String> resolve(String locale, String key) {
+        if (!ready) {
+            return translationRepository.findValueByKeyAndLocale(key, locale);
+        }
+        LocaleVolume volume = locales.get(locale);
+        return volume == null ? Optional.empty() : Optional.ofNullable(volume.get(key));
+    }
+
+    /**
+     * Looks {@code key} up in {@code locale} and, with {@code fallback}, in the rest of its chain. The
+     * result names the locale the value came from.
+     */
+    public Optional<ResolvedTranslation> resolve(String locale, String key, boolean fallback) {
+        if (!fallback) {
+            return resolve(locale, key).map(value -> new ResolvedTranslation(locale, key, value, locale));
+        }
+        if (!ready) {
+            return resolveFromDatabase(locale, key);
+        }
+        FallbackView view = fallbackViews.get(locale);
+        if (view == null || view.generation() != localeGeneration.get()) {
+            view = fallbackView(locale);
+            if (locales.containsKey(locale)) {
+                fallbackViews.put(locale, view);
+            }
+        }
+        return view.resolve(locale, key);
+    }
+
+    /**
+     * Results for the requested keys that resolve, in request order.
+     */
+    public Map<String, ResolvedTranslation> resolveAll(String locale, Collection<String> keys, boolean fallback) {
+        Map<String, ResolvedTranslation> resolved = new LinkedHashMap<>();
+        for (String key : keys) {
+            resolve(locale, key, fallback).ifPresent(translation -> resolved.put(key, translation));
+        }
+        return resolved;
+    }
+
+    /**
+     * Values of {@code keysByLocale}, which are the keys of translations carrying any of {@code tagIds}, in
+     * the same locale -> key order. Keys without a value are left out, and so are locales left empty. Until
+     * the dictionary is loaded, the values come from one query over the rows carrying those tags instead of
+     * one query per key.
+     */
+    public Map<String, Map<String, String>> resolveTagged(Map<String, List<String>> keysByLocale, Collection<UUID> tagIds) {
+        boolean loaded = ready;
+        Map<String, Map<String, String>> fromDatabase = new HashMap<>();
+        if (!loaded && !keysByLocale.isEmpty()) {
+            for (TranslationExportRow row : translationRepository.findExportRowsByTagIdIn(tagIds)) {
+                if (row.getValue() != null) {
+                    fromDatabase.computeIfAbsent(row.getLocale(), locale -> new HashMap<>()).put(row.getKey(), row.getValue());
+                }
+            }
+        }
+
+        Map<String, Map<String, String>> resolved = new LinkedHashMap<>();
+        keysByLocale.forEach((locale, keys) -> {
+            LocaleVolume volume = locales.get(locale);
+            Map<String, String> rows = fromDatabase.getOrDefault(locale, Map.of());
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String key : keys) {
+                String value = loaded ? (volume == null ? null : volume.get(key)) : rows.get(key);
+                if (value != null) values.put(key, value);
+            }
+            if (!values.isEmpty()) resolved.put(locale, values);
+        });
+        return resolved;
+    }
+
+    private Optional<ResolvedTranslation> resolveFromDatabase(String locale, String key) {
+        List<String> chain = localeFallback.chain(locale);
+        Map<String, String> byLocale = new HashMap<>();
+        translationRepository.findExportRowsByKeyAndLocaleIn(key, chain)
+                .forEach(row -> byLocale.put(row.getLocale(), row.getValue()));
+        return chain.stream()
+                .filter(candidate -> byLocale.get(candidate) != null)
+                .findFirst()
+                .map(candidate -> new ResolvedTranslation(locale, key, byLocale.get(candidate), candidate));
+    }
+
+    private FallbackView fallbackView(String locale) {
+        // read before the volumes: one created in between bumps it again and the view is rebuilt next time
+        long generation = localeGeneration.get();
+        List<String> chain = new ArrayList<>();
+        List<LocaleVolume> volumes = new ArrayList<>();
+        for (String candidate : localeFallback.chain(locale)) {
+            LocaleVolume volume = locales.get(candidate);
+            if (volume != null) {
+                chain.add(candidate);
+                volumes.add(volume);
+            }
+        }
+        return new FallbackView(generation, chain.toArray(String[]::new), volumes.toArray(LocaleVolume[]::new));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        if (event.translationIds().isEmpty()) {
+            requestReload();
+            return;
+        }
+        refresh(event);
+    }
+
+    // one refresh at a time: listeners of concurrent commits run in parallel, and one that read its rows before
+    // the other's commit must not put them after the other's newer ones
+    private synchronized void refresh(TranslationChangedEvent event) {
+        // removals first: a rename can hand the old pair to another row in the same write
+        for (TranslationKey removed : event.removedKeys()) {
+            if (removed.locale() != null && removed.key() != null) {
+                volume(removed.locale()).put(removed.key(), null, sequence.incrementAndGet());
+            }
+        }
+        List<TranslationExportRow> rows = refreshTransaction.execute(status ->
+                TranslationRepository.inChunks(event.translationIds(), translationRepository::findExportRowsByIdIn));
+        for (TranslationExportRow row : rows) {
+            volume(row.getLocale()).put(row.getKey(), row.getValue(), sequence.incrementAndGet());
+        }
+        locales.values().forEach(volume -> volume.compactIfNeeded(compactThreshold));
+    }
+
+    /**
+     * Schedules a reload of the whole catalog in the background.
+     */
+    public void requestReload() {
+        reloader.request();
+    }
+
+    void reload() {
+        long started = System.nanoTime();
+        // every write whose event arrived before this point is committed, so the snapshot below has it
+        long snapshotSequence = sequence.get();
+
+        Map<String, LocaleDictionary.Builder> builders = new HashMap<>();
+        refreshTransaction.executeWithoutResult(status -> {
+            try (Stream<TranslationExportRow> rows = translationRepository.streamForExport(null, null, true, true)) {
+                rows.forEach(row -> {
+                    if (row.getValue() != null) {
+                        builders.computeIfAbsent(row.getLocale(), locale -> new LocaleDictionary.Builder())
+                                .put(row.getKey(), row.getValue());
+                    }
+                });
+            }
+        });
+
+        boolean stale = false;
+        for (String locale : new ArrayList<>(locales.keySet())) {
+            LocaleDictionary.Builder builder = builders.remove(locale);
+            // locales that no longer have rows get an empty dictionary
+            stale |= !volume(locale).replace(builder == null ? LocaleDictionary.EMPTY : builder.build(), snapshotSequence);
+        }
+        for (Map.Entry<String, LocaleDictionary.Builder> entry : builders.entrySet()) {
+            stale |= !volume(entry.getKey()).replace(entry.getValue().build(), snapshotSequence);
+        }
+        ready = true;
+        if (stale) {
+            // a compaction folded writes newer than this snapshot; it kept its dictionary, load again
+            reloader.request();
+        }
+
+        DictionaryStatsResponse stats = stats();
+        log.info("Translation dictionary loaded {} entries in {} locales in {} ms, {} bytes per entry",
+                stats.getEntries(), stats.getLocales().size(), (System.nanoTime() - started) / 1_000_000,
+                Math.round(stats.getBytesPerEntry()));
+    }
+
+    public DictionaryStatsResponse stats() {
+        Map<String, DictionaryStatsResponse.LocaleStats> perLocale = new LinkedHashMap<>();
+        long entries = 0;
+        long heapBytes = 0;
+        for (Map.Entry<String, LocaleVolume> entry : new TreeMap<>(locales).entrySet()) {
+            DictionaryStatsResponse.LocaleStats localeStats = entry.getValue().stats();
+            if (localeStats.getEntries() == 0 && localeStats.getOverlayEntries() == 0) {
+                // locales whose rows have all been removed
+                continue;
+            }
+            perLocale.put(entry.getKey(), localeStats);
+            entries += localeStats.getEntries();
+            heapBytes += localeStats.getHeapBytes();
+        }
+        return DictionaryStatsResponse.builder()
+                .ready(ready)
+                .entries(entries)
+                .heapBytes(heapBytes)
+                .bytesPerEntry(entries == 0 ? 0 : (double) heapBytes / entries)
+                .locales(perLocale)
+                .build();
+    }
+
+    private LocaleVolume volume(String locale) {
+        LocaleVolume volume = locales.get(locale);
+        if (volume != null) {
+            return volume;
+        }
+        LocaleVolume created = new LocaleVolume();
+        volume = locales.putIfAbsent(locale, created);
+        if (volume != null) {
+            return volume;
+        }
+        localeGeneration.incrementAndGet();
+        return created;
+    }
+
+    /**
+     * One locale: an immutable dictionary plus the writes that arrived after it was built. A {@code null}
+     * overlay value marks a key as removed.
+     */
+    static final class LocaleVolume {
+
+        // rough cost of a ConcurrentHashMap node with its key, entry record and value strings
+        private static final int OVERLAY_ENTRY_OVERHEAD_BYTES = 120;
+
+        private volatile LocaleDictionary dictionary = LocaleDictionary.EMPTY;
+        // highest overlay sequence already folded into the dictionary
+        private long dictionarySequence;
+        private final Map<String, OverlayEntry> overlay = new ConcurrentHashMap<>();
+
+        String get(String key) {
+            OverlayEntry changed = overlay.get(key);
+            if (changed != null) {
+                return changed.value();
+            }
+            return dictionary.get(key);
+        }
+
+        void put(String key, String value, long sequence) {
+            overlay.put(key, new OverlayEntry(value, sequence));
+        }
+
+        /**
+         * Swaps in a dictionary that already reflects every overlay entry up to {@code upTo}, and drops
+         * those entries. Newer ones stay, they may not be in it. Returns {@code false} without swapping
+         * when the current dictionary is newer than {@code rebuilt}.
+         */
+        synchronized boolean replace(LocaleDictionary rebuilt, long upTo) {
+            if (upTo < dictionarySequence) {
+                return false;
+            }
+            dictionary = rebuilt;
+            dictionarySequence = upTo;
+            overlay.entrySet().removeIf(entry -> entry.getValue().sequence() <= upTo);
+            return true;
+        }
+
+        synchronized void compactIfNeeded(int threshold) {
+            if (overlay.size() < threshold) {
+                return;
+            }
+            Map<String, OverlayEntry> folded = new HashMap<>(overlay);
+            long upTo = folded.values().stream().mapToLong(OverlayEntry::sequence).max().orElse(0);
+
+            LocaleDictionary.Builder builder = new LocaleDictionary.Builder();
+            dictionary.forEach((key, value) -> {
+                if (!folded.containsKey(key)) {
+                    builder.put(key, value);
+                }
+            });
+            folded.forEach((key, entry) -> {
+                if (entry.value() != null) {
+                    builder.put(key, entry.value());
+                }
+            });
+            replace(builder.build(), upTo);
+        }
+
+        DictionaryStatsResponse.LocaleStats stats() {
+            LocaleDictionary current = dictionary;
+            long overlayBytes = 0;
+            for (Map.Entry<String, OverlayEntry> entry : overlay.entrySet()) {
+                String value = entry.getValue().value();
+                overlayBytes += OVERLAY_ENTRY_OVERHEAD_BYTES + 2L * entry.getKey().length()
+                        + (value == null ? 0 : 2L * value.length());
+            }
+            return DictionaryStatsResponse.LocaleStats.builder()
+                    .entries(current.size())
+                    .overlayEntries(overlay.size())
+                    .heapBytes(current.heapBytes() + overlayBytes)
+                    .build();
+        }
+    }
+
+    record OverlayEntry(String value, long sequence) {
+    }
+
+    /**
+     * The volumes of one locale's fallback chain that existed at {@code generation}, most specific first.
+     */
+    record FallbackView(long generation, String[] chain, LocaleVolume[] volumes) {
+
+        Optional<ResolvedTranslation> resolve(String locale, String key) {
+            for (int i = 0; i < volumes.length; i++) {
+                String value = volumes[i].get(key);
+                if (value != null) {
+                    return Optional.of(new ResolvedTranslation(locale, key, value, chain[i]));
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
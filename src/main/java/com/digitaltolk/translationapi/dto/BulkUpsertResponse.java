@@ -0,0 +1,18 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BulkUpsertResponse {
+    // items in the request, duplicates included
+    private int received;
+    // items dropped because a later one had the same (key, locale); inserted + updated + unchanged + duplicates = received
+    private long duplicates;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+}
@@ -0,0 +1,21 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMillis;
+    private long evictionCount;
+    private long evictionWeightBytes;
+    private long entries;
+    private long weightBytes;
+    private long maxWeightBytes;
+}
@@ -0,0 +1,21 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page without totals. Pass {@code nextCursor} back to get the following page; it is null on the last one.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class CursorPagedResponse<T> {
+
+    private int pageSize;
+    private boolean hasMore;
+    private String nextCursor;
+    private List<T> content;
+}
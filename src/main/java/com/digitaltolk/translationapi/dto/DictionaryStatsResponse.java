@@ -0,0 +1,28 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class DictionaryStatsResponse {
+    private boolean ready;
+    private long entries;
+    private long heapBytes;
+    private double bytesPerEntry;
+    private Map<String, LocaleStats> locales;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class LocaleStats {
+        private long entries;
+        // writes not yet folded into the compact dictionary
+        private long overlayEntries;
+        private long heapBytes;
+    }
+}
@@ -0,0 +1,64 @@
+package com.digitaltolk.translationapi.dto;
+
+import com.digitaltolk.translationapi.export.ExportBundle;
+import com.digitaltolk.translationapi.export.ExportBundleStore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State of an export bundle. {@code files} lists what can be downloaded now, which may be an older version
+ * while {@code job} rebuilds it; {@code upToDate} tells whether it matches the current catalog.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class ExportBundleResponse {
+    private UUID id;
+    private List<String> locales;
+    private List<String> tags;
+    private boolean fallback;
+    private boolean upToDate;
+    private Long version;
+    private Instant builtAt;
+    private List<LocaleFile> files;
+    private JobResponse job;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class LocaleFile {
+        private String locale;
+        private long rows;
+        private long bytes;
+        private long gzipBytes;
+    }
+
+    public static ExportBundleResponse of(ExportBundleStore.Status status) {
+        ExportBundle ready = status.ready();
+        return ExportBundleResponse.builder()
+                .id(status.id())
+                .locales(status.key().locales())
+                .tags(status.key().tags())
+                .fallback(status.key().fallback())
+                .upToDate(status.upToDate())
+                .version(ready != null ? ready.version() : null)
+                .builtAt(ready != null ? ready.builtAt() : null)
+                .files(ready == null ? List.of() : ready.files().values().stream()
+                        .sorted(Comparator.comparing(ExportBundle.LocaleFile::locale))
+                        .map(file -> LocaleFile.builder()
+                                .locale(file.locale())
+                                .rows(file.rows())
+                                .bytes(file.identityBytes())
+                                .gzipBytes(file.gzipBytes())
+                                .build())
+                        .toList())
+                .job(status.building() != null ? JobResponse.of(status.building()) : null)
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExportRequest {
+    private List<String> locales;
+    private List<String> tags;
+    // fill each locale's gaps from its fallback chain, needs locales
+    private boolean fallback;
+}
@@ -0,0 +1,39 @@
+package com.digitaltolk.translationapi.dto;
+
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class JobResponse {
+    private UUID id;
+    private String type;
+    private JobStatus status;
+    private long total;
+    private long processed;
+    private long ratePerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public static JobResponse of(BackgroundJob job) {
+        return JobResponse.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .total(job.getTotal())
+                .processed(job.getProcessed())
+                .ratePerSecond(Math.round(job.getRatePerSecond()))
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.digitaltolk.translationapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ResolveRequest {
+    @NotBlank
+    private String locale;
+    @NotEmpty
+    @Size(max = 10000)
+    private List<String> keys;
+    // walk the locale's fallback chain (fr-CA -> fr -> en) for keys it doesn't have
+    private boolean fallback;
+}
@@ -0,0 +1,21 @@
+package com.digitaltolk.translationapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ResolveResponse {
+    private String locale;
+    private Map<String, String> values;
+    // key -> locale, only for keys answered by a fallback locale
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> fallbacks;
+    private List<String> missing;
+}
@@ -0,0 +1,16 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ResolvedTranslation {
+    private String locale;
+    private String key;
+    private String value;
+    // the locale of the fallback chain the value came from, equal to locale for a direct hit
+    private String resolvedLocale;
+}
@@ -0,0 +1,37 @@
+package com.digitaltolk.translationapi.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class SeedRequest {
+    @Min(1)
+    @Max(10_000_000)
+    private int rows = 100_000;
+    @Min(1)
+    @Max(32)
+    private int locales = 2;
+    @Min(1)
+    @Max(10_000)
+    private int tags = 20;
+    @Min(0)
+    @Max(32)
+    private int minTagsPerRow = 1;
+    @Min(0)
+    @Max(32)
+    private int maxTagsPerRow = 1;
+    // Zipf exponent for picking tags, 0 means uniform
+    @DecimalMin("0.0")
+    @DecimalMax("4.0")
+    private double tagSkew = 0;
+    @Min(100)
+    @Max(100_000)
+    private int chunkSize = 10_000;
+    @Min(1)
+    @Max(8)
+    private int parallelism = 4;
+    private long randomSeed = 42;
+}
@@ -0,0 +1,8 @@
+package com.digitaltolk.translationapi.dto;
+
+public enum TagMatch {
+    // at least one of the requested tags
+    ANY,
+    // every requested tag
+    ALL
+}
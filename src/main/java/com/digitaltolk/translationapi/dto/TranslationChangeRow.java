@@ -0,0 +1,25 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A translation written or a tombstone recorded inside a delta window, with the id and time that place it
+ * in the window's order. Deletes have no value.
+ */
+@Data
+@AllArgsConstructor
+public class TranslationChangeRow {
+    private UUID id;
+    private LocalDateTime changedAt;
+    private String locale;
+    private String key;
+    private String value;
+
+    public TranslationChangeRow(UUID id, LocalDateTime changedAt, String locale, String key) {
+        this(id, changedAt, locale, key, null);
+    }
+}
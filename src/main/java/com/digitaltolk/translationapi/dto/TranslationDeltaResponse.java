@@ -0,0 +1,24 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Changes in {@code (since, cursor]}, one page at a time. Clients apply {@code deletes} before
+ * {@code upserts}; while {@code hasMore} is set they fetch the next page of the same window by passing
+ * {@code nextPage} as {@code page}, and after the last one they pass {@code cursor} as {@code since} on the
+ * next sync.
+ */
+@Data
+@Builder
+public class TranslationDeltaResponse {
+    private LocalDateTime since;
+    private LocalDateTime cursor;
+    private List<TranslationExportRow> upserts;
+    private List<TranslationTombstoneResponse> deletes;
+    private boolean hasMore;
+    private String nextPage;
+}
@@ -0,0 +1,12 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TranslationExportRow {
+    private String locale;
+    private String key;
+    private String value;
+}
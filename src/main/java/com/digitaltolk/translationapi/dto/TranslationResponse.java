@@ -1,5 +1,6 @@
 package com.digitaltolk.translationapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 import java.util.Set;
@@ -13,4 +14,7 @@ public class TranslationResponse {
     private String locale;
     private String value;
     private Set<String> tags;
+    // only set by full-text search: the value as HTML, matches wrapped in <mark>
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String highlight;
 }
\ No newline at end of file
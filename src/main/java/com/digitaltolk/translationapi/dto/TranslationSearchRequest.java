@@ -2,6 +2,7 @@ package com.digitaltolk.translationapi.dto;
 
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.util.List;
@@ -11,11 +12,19 @@ import java.util.Set;
 public class TranslationSearchRequest {
     private List<String> keys;
     private List<String> values;
+    // free text matched against values (full text, substring, fuzzy) and keys (substring), results ranked
+    @Size(max = 200)
+    private String query;
+    // also match values with a word similar to the query, tolerates typos at the cost of speed
+    private boolean fuzzy;
     private List<String> locales;
     private Set<String> tags;
+    private TagMatch tagMatch = TagMatch.ANY;
     @Min(0)
     private int page = 0;
     @Min(1)
     @Max(1000)
     private int size = 50;
+    // only used by the keyset search, offset search pages with page/size
+    private String cursor;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+// one translation_tag association; tagId is null for an untagged row when read with a left join
+@Data
+@AllArgsConstructor
+public class TranslationTagRow {
+    private String locale;
+    private String key;
+    private UUID tagId;
+}
@@ -0,0 +1,20 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class TranslationTextMatch {
+
+    // control characters that can't occur in a stored value's headline, so the markers survive HTML escaping
+    public static final String MATCH_START = "\u0002";
+    public static final String MATCH_END = "\u0003";
+
+    private UUID id;
+    private double rank;
+    // plain value with the full-text matches between MATCH_START and MATCH_END, null when the row matched otherwise
+    private String highlight;
+}
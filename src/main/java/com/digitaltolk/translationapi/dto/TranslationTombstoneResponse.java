@@ -0,0 +1,11 @@
+package com.digitaltolk.translationapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TranslationTombstoneResponse {
+    private String locale;
+    private String key;
+}
@@ -1,5 +1,6 @@
 package com.digitaltolk.translationapi.entity;
 
+import com.digitaltolk.translationapi.id.GeneratedUuidV7;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class Tag {
 
     @Id
-    @GeneratedValue
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(unique = true)
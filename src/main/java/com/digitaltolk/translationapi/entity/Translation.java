@@ -1,7 +1,10 @@
 package com.digitaltolk.translationapi.entity;
 
+import com.digitaltolk.translationapi.id.GeneratedUuidV7;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,7 +13,14 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "translation", uniqueConstraints = @UniqueConstraint(columnNames = {"key", "locale"}))
+@Table(
+        name = "translation",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"key", "locale"}),
+        indexes = {
+                @Index(name = "idx_translation_locale_key", columnList = "locale, key"),
+                @Index(name = "idx_translation_updated_at", columnList = "updatedAt")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,16 +28,21 @@ import java.util.UUID;
 public class Translation {
 
     @Id
-    @GeneratedValue
+    @GeneratedUuidV7
     private UUID id;
     private String key;
     private String locale;
     private String value;
     @CreationTimestamp
     private LocalDateTime createdAt;
+    // stamped by the database like bulk upserts, not by this JVM's clock; delta exports compare it with the
+    // database's time (TranslationChangeRepository)
     @UpdateTimestamp
+    @ColumnTransformer(write = "coalesce(statement_timestamp()::timestamp, ?)")
     private LocalDateTime updatedAt;
 
+    // pages loaded without an entity graph fetch their tags in a few IN queries instead of one per row
+    @BatchSize(size = 256)
     @ManyToMany
     @JoinTable(
         name = "translation_tag",
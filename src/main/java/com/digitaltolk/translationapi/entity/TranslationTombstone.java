@@ -0,0 +1,33 @@
+package com.digitaltolk.translationapi.entity;
+
+import com.digitaltolk.translationapi.id.GeneratedUuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Records that a (key, locale) pair left the catalog, so delta exports can tell clients to drop it.
+ */
+@Entity
+@Table(name = "translation_tombstone", indexes = @Index(name = "idx_translation_tombstone_deleted_at", columnList = "deletedAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TranslationTombstone {
+
+    @Id
+    @GeneratedUuidV7
+    private UUID id;
+    private UUID translationId;
+    private String key;
+    private String locale;
+    // stamped by the database, see Translation.updatedAt
+    @CreationTimestamp
+    @ColumnTransformer(write = "coalesce(statement_timestamp()::timestamp, ?)")
+    private LocalDateTime deletedAt;
+}
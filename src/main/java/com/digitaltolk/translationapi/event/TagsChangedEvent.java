@@ -0,0 +1,40 @@
+package com.digitaltolk.translationapi.event;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after tags are created, renamed, deleted or merged, for listeners holding state derived from the
+ * tag table. Like {@link TranslationChangedEvent}, listeners use {@code @TransactionalEventListener}.
+ * {@code saved} maps the id of every created or renamed tag to its current name, {@code renamed} holds the
+ * ids of the renamed ones. {@code mergedInto} maps a merged tag, also listed in {@code deleted}, to the tag
+ * that took over its translations.
+ */
+public record TagsChangedEvent(Map<UUID, String> saved, Set<UUID> renamed, Set<UUID> deleted,
+                               Map<UUID, UUID> mergedInto) {
+
+    public static TagsChangedEvent saved(Map<UUID, String> saved) {
+        return new TagsChangedEvent(saved, Set.of(), Set.of(), Map.of());
+    }
+
+    public static TagsChangedEvent renamed(UUID id, String name) {
+        return new TagsChangedEvent(Map.of(id, name), Set.of(id), Set.of(), Map.of());
+    }
+
+    public static TagsChangedEvent deleted(UUID id) {
+        return new TagsChangedEvent(Map.of(), Set.of(), Set.of(id), Map.of());
+    }
+
+    public static TagsChangedEvent merged(UUID id, UUID targetId) {
+        return new TagsChangedEvent(Map.of(), Set.of(), Set.of(id), Map.of(id, targetId));
+    }
+
+    /**
+     * Whether translations read before the change may now show or filter by the wrong tags. Creating a tag
+     * can't change any translation.
+     */
+    public boolean changesTranslations() {
+        return !renamed.isEmpty() || !deleted.isEmpty();
+    }
+}
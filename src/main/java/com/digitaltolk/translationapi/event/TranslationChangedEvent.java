@@ -0,0 +1,18 @@
+package com.digitaltolk.translationapi.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after translations are created, updated or deleted. Listeners that derive state from the
+ * catalog use {@code @TransactionalEventListener} so they only react once the write has committed.
+ * An empty {@code translationIds} means the write didn't track individual rows (bulk upserts) and anything
+ * may have changed. {@code removedKeys} holds the (locale, key) pairs that no longer exist after deletes
+ * and renames, which the ids alone can't tell once the rows are gone or changed.
+ */
+public record TranslationChangedEvent(Set<UUID> translationIds, Set<TranslationKey> removedKeys) {
+
+    public TranslationChangedEvent(Set<UUID> translationIds) {
+        this(translationIds, Set.of());
+    }
+}
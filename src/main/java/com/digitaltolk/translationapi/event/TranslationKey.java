@@ -0,0 +1,10 @@
+package com.digitaltolk.translationapi.event;
+
+import com.digitaltolk.translationapi.entity.Translation;
+
+public record TranslationKey(String locale, String key) {
+
+    public static TranslationKey of(Translation translation) {
+        return new TranslationKey(translation.getLocale(), translation.getKey());
+    }
+}
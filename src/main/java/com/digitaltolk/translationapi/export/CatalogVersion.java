@@ -0,0 +1,35 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the translation catalog, bumped after every committed write, and
+ * after tag renames, deletes and merges, which change what a tag-filtered export contains.
+ * Seeded from the clock so versions keep increasing across restarts.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        if (event.changesTranslations()) {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.digitaltolk.translationapi.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A finished export on disk: one file per locale, as plain JSON and gzip, for one {@link CatalogVersion}.
+ */
+public record ExportBundle(UUID id, ExportKey key, long version, Path directory, Map<String, LocaleFile> files,
+                           Instant builtAt) {
+
+    public Optional<LocaleFile> file(String locale) {
+        return Optional.ofNullable(files.get(locale));
+    }
+
+    public record LocaleFile(String locale, long rows, Path identity, long identityBytes, Path gzip, long gzipBytes) {
+    }
+}
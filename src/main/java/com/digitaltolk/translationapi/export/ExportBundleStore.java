@@ -0,0 +1,253 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.job.JobStatus;
+import com.digitaltolk.translationapi.service.TranslationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Export bundles built in the background and kept on disk. Every {@link ExportKey} has a stable id, so a
+ * client keeps downloading from the same URL while bundles are rebuilt behind it. A build only starts when
+ * the catalog has changed since the last one and none is already running for the current version; until it
+ * finishes the previous bundle keeps being served.
+ * <p>
+ * The bundle before the previous one is deleted when a new one is installed, so a download that started
+ * just before the swap still finds its file.
+ * <p>
+ * At most {@code translation.export.bundles.max-slots} keys are kept. Past that the key requested or
+ * downloaded least recently is dropped with its files, and so is any key left alone for longer than
+ * {@code translation.export.bundles.idle-timeout}; requesting it again starts over with a fresh build.
+ */
+@Slf4j
+@Component
+public class ExportBundleStore {
+
+    private final TranslationService translationService;
+    private final CatalogVersion catalogVersion;
+    private final JobRegistry jobRegistry;
+    private final ExportBundleWriter bundleWriter;
+    private final Path directory;
+
+    @Value("${translation.export.bundles.max-slots:64}")
+    private int maxSlots = 64;
+
+    @Value("${translation.export.bundles.idle-timeout:PT1H}")
+    private Duration idleTimeout = Duration.ofHours(1);
+
+    // access ordered, least recently requested or downloaded first; guarded by itself
+    private final Map<UUID, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+    // a key dropped and requested again gets a new directory, so a build still running for the old slot
+    // can't touch the new one's files
+    private final AtomicLong generations = new AtomicLong();
+
+    public ExportBundleStore(TranslationService translationService,
+                             CatalogVersion catalogVersion,
+                             JobRegistry jobRegistry,
+                             ExportBundleWriter bundleWriter,
+                             @Value("${translation.export.bundles.dir:${java.io.tmpdir}/translation-export-bundles}") Path directory) throws IOException {
+        this.translationService = translationService;
+        this.catalogVersion = catalogVersion;
+        this.jobRegistry = jobRegistry;
+        this.bundleWriter = bundleWriter;
+        this.directory = directory;
+        // versions restart from the clock, so bundles of an earlier run can never be served again
+        FileSystemUtils.deleteRecursively(directory);
+        Files.createDirectories(directory);
+    }
+
+    public static UUID idOf(ExportKey key) {
+        return UUID.nameUUIDFromBytes(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the state for {@code key}, starting a build unless the bundle matches the current catalog
+     * version or a build for that version is already running.
+     */
+    public Status request(ExportKey key) {
+        Slot slot = slot(key);
+        synchronized (slot) {
+            // read the version before the data so a concurrent write can only make the bundle look older
+            long version = catalogVersion.current();
+            boolean current = slot.ready != null && slot.ready.version() == version;
+            boolean building = slot.building != null && slot.building.getStatus() == JobStatus.RUNNING
+                    && slot.buildingVersion == version;
+            if (!current && !building) {
+                slot.buildingVersion = version;
+                slot.building = jobRegistry.submit("export", 0, job -> build(slot, version, job));
+            }
+            return slot.status();
+        }
+    }
+
+    public Optional<Status> find(UUID id) {
+        Slot slot = lookup(id);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        synchronized (slot) {
+            return Optional.of(slot.status());
+        }
+    }
+
+    public Optional<ExportBundle> ready(UUID id) {
+        Slot slot = lookup(id);
+        return slot == null ? Optional.empty() : Optional.ofNullable(slot.ready);
+    }
+
+    private Slot slot(ExportKey key) {
+        List<Slot> dropped;
+        Slot slot;
+        synchronized (slots) {
+            slot = slots.computeIfAbsent(idOf(key), id -> new Slot(id, key));
+            slot.lastAccess = System.nanoTime();
+            dropped = dropStale();
+        }
+        dropped.forEach(this::retire);
+        return slot;
+    }
+
+    private Slot lookup(UUID id) {
+        List<Slot> dropped;
+        Slot slot;
+        synchronized (slots) {
+            dropped = dropStale();
+            slot = slots.get(id);
+            if (slot != null) slot.lastAccess = System.nanoTime();
+        }
+        dropped.forEach(this::retire);
+        return slot;
+    }
+
+    // walks from the least recently used slot and stops at the first one that is neither over the cap nor idle
+    private List<Slot> dropStale() {
+        List<Slot> dropped = new ArrayList<>();
+        long now = System.nanoTime();
+        Iterator<Slot> iterator = slots.values().iterator();
+        while (iterator.hasNext()) {
+            Slot slot = iterator.next();
+            if (slots.size() <= maxSlots && now - slot.lastAccess <= idleTimeout.toNanos()) {
+                break;
+            }
+            iterator.remove();
+            dropped.add(slot);
+        }
+        return dropped;
+    }
+
+    private void retire(Slot slot) {
+        synchronized (slot) {
+            slot.retired = true;
+            slot.ready = null;
+            slot.previous = null;
+        }
+        delete(slot.directory);
+        log.info("Export bundle {} dropped", slot.id);
+    }
+
+    private void build(Slot slot, long version, BackgroundJob job) {
+        Path target = slot.directory.resolve(Long.toString(version));
+        try {
+            FileSystemUtils.deleteRecursively(target);
+            Files.createDirectories(target);
+            AtomicReference<Map<String, ExportBundle.LocaleFile>> files = new AtomicReference<>();
+            translationService.exportRows(slot.key.locales(), slot.key.tags(), slot.key.fallback(), rows -> {
+                files.set(bundleWriter.write(rows, target, job));
+                return files.get().values().stream().mapToLong(ExportBundle.LocaleFile::rows).sum();
+            });
+            install(slot, new ExportBundle(slot.id, slot.key, version, target, Map.copyOf(files.get()), Instant.now()));
+        } catch (IOException ex) {
+            delete(target);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            delete(target);
+            throw ex;
+        }
+    }
+
+    private void install(Slot slot, ExportBundle bundle) {
+        ExportBundle obsolete;
+        synchronized (slot) {
+            if (slot.retired) {
+                // dropped while building; retire already deleted the directory, this build recreated it
+                delete(slot.directory);
+                return;
+            }
+            if (slot.ready != null && slot.ready.version() >= bundle.version()) {
+                // a build for a newer version finished first
+                obsolete = bundle;
+            } else {
+                obsolete = slot.previous;
+                slot.previous = slot.ready;
+                slot.ready = bundle;
+            }
+        }
+        if (obsolete != null) {
+            delete(obsolete.directory());
+        }
+        log.info("Export bundle {} built for version {}: {} locales", bundle.id(), bundle.version(), bundle.files().size());
+    }
+
+    private static void delete(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete export bundle {}", path, ex);
+        }
+    }
+
+    /**
+     * Snapshot of a bundle's state: the bundle being served, if any, and the latest build job.
+     */
+    public record Status(UUID id, ExportKey key, ExportBundle ready, BackgroundJob building, long currentVersion) {
+
+        public boolean upToDate() {
+            return ready != null && ready.version() == currentVersion;
+        }
+    }
+
+    private class Slot {
+
+        private final UUID id;
+        private final ExportKey key;
+        private final Path directory;
+        // read without the lock by downloads
+        private volatile ExportBundle ready;
+        private ExportBundle previous;
+        private BackgroundJob building;
+        private long buildingVersion;
+        private boolean retired;
+        // guarded by slots
+        private long lastAccess;
+
+        Slot(UUID id, ExportKey key) {
+            this.id = id;
+            this.key = key;
+            this.directory = ExportBundleStore.this.directory.resolve(id + "-" + generations.incrementAndGet());
+        }
+
+        Status status() {
+            return new Status(id, key, ready, building, catalogVersion.current());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits export rows into one flat {@code {"<key>": "<value>"}} file per locale, written once as plain JSON
+ * and once gzipped in the same pass. Files are numbered rather than named after the locale, so no request
+ * value ever becomes part of a path. Rows must arrive grouped by locale.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportBundleWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_EVERY = 10_000;
+
+    private final Gzip compression;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public Map<String, ExportBundle.LocaleFile> write(Iterator<TranslationExportRow> rows, Path directory,
+                                                      BackgroundJob job) throws IOException {
+        Map<String, ExportBundle.LocaleFile> files = new LinkedHashMap<>();
+        LocaleOutput current = null;
+        long pending = 0;
+        try {
+            while (rows.hasNext()) {
+                TranslationExportRow row = rows.next();
+                if (current == null || !row.getLocale().equals(current.locale)) {
+                    if (current != null) {
+                        files.put(current.locale, current.finish());
+                    }
+                    current = new LocaleOutput(row.getLocale(), directory, files.size());
+                }
+                current.generator.writeStringField(row.getKey(), row.getValue());
+                current.rows++;
+                if (++pending == PROGRESS_EVERY) {
+                    job.advance(pending);
+                    pending = 0;
+                }
+            }
+            if (current != null) {
+                files.put(current.locale, current.finish());
+                current = null;
+            }
+            job.advance(pending);
+            return files;
+        } finally {
+            if (current != null) {
+                current.abort();
+            }
+        }
+    }
+
+    private class LocaleOutput {
+
+        private final String locale;
+        private final Path identity;
+        private final Path gzip;
+        private final JsonGenerator generator;
+        private long rows;
+
+        LocaleOutput(String locale, Path directory, int index) throws IOException {
+            this.locale = locale;
+            this.identity = directory.resolve(index + ".json");
+            this.gzip = directory.resolve(index + ".json.gz");
+            OutputStream identityOut = new BufferedOutputStream(Files.newOutputStream(identity), BUFFER_SIZE);
+            OutputStream gzipOut = compression.precompressing(Files.newOutputStream(gzip), BUFFER_SIZE);
+            // closing the generator closes both files
+            this.generator = jsonFactory.createGenerator(new TeeOutputStream(identityOut, gzipOut), JsonEncoding.UTF8);
+            generator.writeStartObject();
+        }
+
+        ExportBundle.LocaleFile finish() throws IOException {
+            generator.writeEndObject();
+            generator.close();
+            return new ExportBundle.LocaleFile(locale, rows, identity, Files.size(identity), gzip, Files.size(gzip));
+        }
+
+        void abort() {
+            try {
+                generator.close();
+            } catch (IOException ignored) {
+                // the build failed already, the directory is dropped
+            }
+        }
+    }
+
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (first) {
+                second.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.service.TranslationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-serialized export payloads per {@link ExportKey} and {@link ExportFormat}, valid for exactly one
+ * {@link CatalogVersion}.
+ * Concurrent requests for the same key wait for a single rebuild instead of each scanning the table.
+ * Payloads larger than {@code translation.export.cache.max-entry-bytes} are not cached and the caller
+ * falls back to streaming. Least recently used entries are dropped once there are more than
+ * {@code translation.export.cache.max-entries}, or once their plain and gzip payloads together take more than
+ * {@code translation.export.cache.max-bytes}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportCache implements MeterBinder {
+
+    private final TranslationService translationService;
+    private final CatalogVersion catalogVersion;
+    private final Gzip gzip;
+    private final TranslationExportWriter exportWriter;
+
+    @Value("${translation.export.cache.max-entries:32}")
+    private int maxEntries;
+
+    @Value("${translation.export.cache.max-entry-bytes:67108864}")
+    private int maxEntryBytes;
+
+    @Value("${translation.export.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong oversized = new AtomicLong();
+
+    // access order, so the eldest entry is the least recently used; guarded by itself, like cachedBytes
+    private final Map<Entry, Holder> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // payload bytes of the snapshots held by entries
+    private long cachedBytes;
+
+    /**
+     * Returns the payload for the current catalog version, or {@code null} when it is too large to cache.
+     */
+    public ExportSnapshot get(ExportKey key) {
+        return get(key, ExportFormat.JSON);
+    }
+
+    public ExportSnapshot get(ExportKey key, ExportFormat format) {
+        Holder holder;
+        Entry entry = new Entry(key, format);
+        synchronized (entries) {
+            holder = entries.computeIfAbsent(entry, k -> new Holder());
+            trim();
+        }
+
+        synchronized (holder) {
+            // read the version before the data so a concurrent write can only make the snapshot look older
+            long version = catalogVersion.current();
+            if (holder.snapshot != null && holder.snapshot.getVersion() == version) {
+                hits.incrementAndGet();
+                return holder.snapshot;
+            }
+            if (holder.oversizedVersion == version) {
+                oversized.incrementAndGet();
+                return null;
+            }
+
+            holder.snapshot = null;
+            account(entry, holder, 0);
+            builds.incrementAndGet();
+            try {
+                byte[] identity = serialize(key, format);
+                ExportSnapshot snapshot = ExportSnapshot.builder()
+                        .version(version)
+                        .identity(identity)
+                        .gzip(gzip.precompress(identity))
+                        .build();
+                holder.snapshot = snapshot;
+                account(entry, holder, (long) snapshot.getIdentity().length + snapshot.getGzip().length);
+                return snapshot;
+            } catch (PayloadTooLargeException ex) {
+                holder.oversizedVersion = version;
+                oversized.incrementAndGet();
+                return null;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Records the payload size of {@code holder}'s snapshot and drops entries over the limits. A holder that
+     * was dropped while it was being built isn't counted; its snapshot goes to the caller only.
+     */
+    private void account(Entry entry, Holder holder, long bytes) {
+        synchronized (entries) {
+            if (entries.get(entry) != holder) {
+                return;
+            }
+            cachedBytes += bytes - holder.bytes;
+            holder.bytes = bytes;
+            trim();
+        }
+    }
+
+    // callers hold the lock on entries
+    private void trim() {
+        Iterator<Holder> eldestFirst = entries.values().iterator();
+        while ((entries.size() > maxEntries || cachedBytes > maxBytes) && eldestFirst.hasNext()) {
+            cachedBytes -= eldestFirst.next().bytes;
+            eldestFirst.remove();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hit", hits);
+        counter(registry, "build", builds);
+        counter(registry, "oversized", oversized);
+    }
+
+    private static void counter(MeterRegistry registry, String result, AtomicLong count) {
+        FunctionCounter.builder("translation.export.cache.requests", count, AtomicLong::get)
+                .description("Export cache lookups by outcome; oversized payloads are streamed instead")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private byte[] serialize(ExportKey key, ExportFormat format) throws IOException {
+        BoundedByteArrayOutputStream out = new BoundedByteArrayOutputStream(maxEntryBytes);
+        translationService.exportRows(key.locales(), key.tags(), key.fallback(), rows -> exportWriter.write(rows, out, format));
+        return out.toByteArray();
+    }
+
+    private record Entry(ExportKey key, ExportFormat format) {
+    }
+
+    private static class Holder {
+        private ExportSnapshot snapshot;
+        private long oversizedVersion = -1;
+        // guarded by entries
+        private long bytes;
+    }
+
+    private static class PayloadTooLargeException extends RuntimeException {
+    }
+
+    private static class BoundedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private final int limit;
+
+        BoundedByteArrayOutputStream(int limit) {
+            super(8192);
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureCapacity(int len) {
+            if (count + len > limit) {
+                throw new PayloadTooLargeException();
+            }
+        }
+    }
+}
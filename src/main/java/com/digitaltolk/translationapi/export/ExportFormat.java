@@ -0,0 +1,64 @@
+package com.digitaltolk.translationapi.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Wire formats of an export. All three carry the same {@code {"<locale>": {"<key>": "<value>"}}} document;
+ * Smile and CBOR are Jackson's binary encodings of it and decode with the matching Jackson factory.
+ */
+public enum ExportFormat {
+
+    JSON(MediaType.APPLICATION_JSON, "", new JsonFactory()),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile"), "-smile", new SmileFactory()),
+    CBOR(MediaType.parseMediaType("application/cbor"), "-cbor", new CBORFactory());
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+    private final JsonFactory factory;
+
+    ExportFormat(MediaType mediaType, String etagSuffix, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+        this.factory = factory;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String etagSuffix() {
+        return etagSuffix;
+    }
+
+    JsonFactory factory() {
+        return factory;
+    }
+
+    /**
+     * The format of the highest-quality acceptable media type, JSON when the header is missing, unparseable
+     * or only names other types. Wildcards pick JSON.
+     */
+    public static ExportFormat negotiate(String accept) {
+
+        if (accept == null || accept.isBlank()) return JSON;
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        return accepted.stream()
+                .filter(type -> type.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .flatMap(type -> List.of(values()).stream().filter(format -> type.includes(format.mediaType)))
+                .findFirst()
+                .orElse(JSON);
+    }
+}
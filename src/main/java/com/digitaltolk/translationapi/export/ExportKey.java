@@ -0,0 +1,24 @@
+package com.digitaltolk.translationapi.export;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Normalized export filter; the order and duplicates of request parameters don't create new cache entries.
+ * {@code fallback} exports fill each locale's gaps from its fallback chain.
+ */
+public record ExportKey(List<String> locales, List<String> tags, boolean fallback) {
+
+    public static ExportKey of(Collection<String> locales, Collection<String> tags) {
+        return of(locales, tags, false);
+    }
+
+    public static ExportKey of(Collection<String> locales, Collection<String> tags, boolean fallback) {
+        return new ExportKey(normalize(locales), normalize(tags), fallback);
+    }
+
+    private static List<String> normalize(Collection<String> values) {
+        if (values == null) return List.of();
+        return values.stream().distinct().sorted().toList();
+    }
+}
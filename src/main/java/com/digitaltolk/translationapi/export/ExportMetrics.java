@@ -0,0 +1,78 @@
+package com.digitaltolk.translationapi.export;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Size and duration of export responses, tagged by where the payload came from: {@code cache} for
+ * pre-serialized snapshots, {@code stream} for payloads written straight from the database, {@code bundle}
+ * for files of a pre-built export bundle.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordCached(byte[] body, boolean gzip) {
+        bytes("cache", gzip).record(body.length);
+    }
+
+    public void recordBundle(long bytes, boolean gzip) {
+        bytes("bundle", gzip).record(bytes);
+    }
+
+    public StreamingResponseBody recordStreamed(StreamingResponseBody body, boolean gzip) {
+        return out -> {
+            CountingOutputStream counting = new CountingOutputStream(out);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                body.writeTo(counting);
+            } finally {
+                sample.stop(Timer.builder("translation.export.stream.duration")
+                        .description("Time to write a streamed export")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+                bytes("stream", gzip).record(counting.count);
+            }
+        };
+    }
+
+    private DistributionSummary bytes(String source, boolean gzip) {
+        return DistributionSummary.builder("translation.export.bytes")
+                .description("Export response body size")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .tag("encoding", gzip ? "gzip" : "identity")
+                .register(meterRegistry);
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
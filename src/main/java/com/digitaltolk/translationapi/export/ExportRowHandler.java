@@ -0,0 +1,16 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Consumes export rows, grouped by locale and sorted by key, while the read transaction is open.
+ * Returns the number of rows handled.
+ */
+@FunctionalInterface
+public interface ExportRowHandler {
+
+    long handle(Iterator<TranslationExportRow> rows) throws IOException;
+}
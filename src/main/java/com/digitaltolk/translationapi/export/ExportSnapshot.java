@@ -0,0 +1,12 @@
+package com.digitaltolk.translationapi.export;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ExportSnapshot {
+    private final long version;
+    private final byte[] identity;
+    private final byte[] gzip;
+}
@@ -0,0 +1,51 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Writes export rows as {@code {"<locale>": {"<key>": "<value>"}}} straight to an output stream.
+ * Rows must arrive grouped by locale, so nothing but the current row is ever held in memory. The same document
+ * can be written as Smile or CBOR instead of JSON.
+ */
+@Component
+public class TranslationExportWriter {
+
+    public long write(Iterator<TranslationExportRow> rows, OutputStream out) throws IOException {
+        return write(rows, out, ExportFormat.JSON);
+    }
+
+    public long write(Iterator<TranslationExportRow> rows, OutputStream out, ExportFormat format) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = format.factory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+
+            String currentLocale = null;
+            while (rows.hasNext()) {
+                TranslationExportRow row = rows.next();
+                if (!row.getLocale().equals(currentLocale)) {
+                    if (currentLocale != null) {
+                        generator.writeEndObject();
+                    }
+                    currentLocale = row.getLocale();
+                    generator.writeObjectFieldStart(currentLocale);
+                }
+                generator.writeStringField(row.getKey(), row.getValue());
+                count++;
+            }
+
+            if (currentLocale != null) {
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,56 @@
+package com.digitaltolk.translationapi.job;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a long running task. Workers only touch {@link #advance(long)}; status changes go through
+ * {@link JobRegistry}.
+ */
+@Getter
+public class BackgroundJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final String type;
+    private final long total;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong processed = new AtomicLong();
+
+    private volatile JobStatus status = JobStatus.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    BackgroundJob(String type, long total) {
+        this.type = type;
+        this.total = total;
+    }
+
+    public void advance(long count) {
+        processed.addAndGet(count);
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public double getRatePerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return processed.get() * 1000.0 / millis;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = JobStatus.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        finishedAt = Instant.now();
+        error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        status = JobStatus.FAILED;
+    }
+}
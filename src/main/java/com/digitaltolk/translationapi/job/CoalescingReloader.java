@@ -0,0 +1,50 @@
+package com.digitaltolk.translationapi.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a reload on a {@link TaskExecutor}, one at a time. Requests made while a reload runs, including
+ * from the reload itself, lead to exactly one more run once it finishes. A failed run is logged and ends
+ * the round; the next request starts a new one.
+ */
+@Slf4j
+public class CoalescingReloader {
+
+    private final TaskExecutor taskExecutor;
+    private final Runnable reload;
+    private final String name;
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CoalescingReloader(TaskExecutor taskExecutor, Runnable reload, String name) {
+        this.taskExecutor = taskExecutor;
+        this.reload = reload;
+        this.name = name;
+    }
+
+    public void request() {
+        requested.set(true);
+        if (running.compareAndSet(false, true)) {
+            taskExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (requested.getAndSet(false)) {
+                reload.run();
+            }
+        } catch (RuntimeException ex) {
+            log.error("{} reload failed", name, ex);
+        } finally {
+            running.set(false);
+            // a request that raced with the flag reset above
+            if (requested.get() && running.compareAndSet(false, true)) {
+                taskExecutor.execute(this::drain);
+            }
+        }
+    }
+}
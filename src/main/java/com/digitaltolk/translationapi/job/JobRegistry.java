@@ -0,0 +1,58 @@
+package com.digitaltolk.translationapi.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Runs jobs on the application task executor and keeps them around for polling. Finished jobs are
+ * dropped an hour after they end.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobRegistry {
+
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final TaskExecutor taskExecutor;
+
+    private final Map<UUID, BackgroundJob> jobs = new ConcurrentHashMap<>();
+
+    public BackgroundJob submit(String type, long total, Consumer<BackgroundJob> task) {
+        prune();
+
+        BackgroundJob job = new BackgroundJob(type, total);
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> {
+            try {
+                task.accept(job);
+                job.complete();
+                log.info("{} job {} finished: {} items at {}/s", type, job.getId(), job.getProcessed(),
+                        Math.round(job.getRatePerSecond()));
+            } catch (RuntimeException ex) {
+                job.fail(ex);
+                log.error("{} job {} failed", type, job.getId(), ex);
+            }
+        });
+        return job;
+    }
+
+    public Optional<BackgroundJob> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void prune() {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,7 @@
+package com.digitaltolk.translationapi.job;
+
+public enum JobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,80 @@
+package com.digitaltolk.translationapi.locale;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fallback chains for locales, most specific first, e.g. {@code fr-CA -> fr -> en}. A locale's parent is
+ * configured in {@code translation.locale.parents} as {@code child:parent} pairs, otherwise it is derived
+ * the BCP-47 way by dropping the last subtag ({@code zh-Hant-TW -> zh-Hant -> zh}). Every chain ends with
+ * {@code translation.locale.default}. Chains are cached, up to a bound, since any string a client sends
+ * can be asked for.
+ */
+@Component
+public class LocaleFallback {
+
+    private static final int MAX_CACHED_CHAINS = 1024;
+
+    private final String defaultLocale;
+    private final Map<String, String> parents;
+    private final Cache<String, List<String>> chains = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_CHAINS)
+            .build();
+
+    public LocaleFallback(@Value("${translation.locale.default:en}") String defaultLocale,
+                          @Value("${translation.locale.parents:}") String parents) {
+        this.defaultLocale = defaultLocale;
+        this.parents = parseParents(parents);
+    }
+
+    public String defaultLocale() {
+        return defaultLocale;
+    }
+
+    public List<String> chain(String locale) {
+        return chains.get(locale, this::computeChain);
+    }
+
+    private List<String> computeChain(String locale) {
+        Set<String> chain = new LinkedHashSet<>();
+        String current = locale;
+        // a configured cycle ends the chain instead of looping
+        while (current != null && chain.add(current)) {
+            current = parentOf(current);
+        }
+        chain.add(defaultLocale);
+        return Collections.unmodifiableList(new ArrayList<>(chain));
+    }
+
+    private String parentOf(String locale) {
+        String configured = parents.get(locale);
+        if (configured != null) {
+            return configured;
+        }
+        int separator = Math.max(locale.lastIndexOf('-'), locale.lastIndexOf('_'));
+        return separator > 0 ? locale.substring(0, separator) : null;
+    }
+
+    private static Map<String, String> parseParents(String parents) {
+        Map<String, String> parsed = new HashMap<>();
+        for (String pair : parents.split(",")) {
+            if (pair.isBlank()) continue;
+            String[] parts = pair.split(":");
+            if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                throw new IllegalArgumentException("Invalid locale parent mapping: " + pair.trim());
+            }
+            parsed.put(parts[0].trim(), parts[1].trim());
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,37 @@
+package com.digitaltolk.translationapi.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open. Registered
+ * as Hibernate's {@link StatementInspector}, so repository methods, JPQL and native queries all count;
+ * plain {@code JdbcTemplate} calls don't go through Hibernate and don't.
+ */
+@Component
+public class QueryCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> counts = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        counts.set(new int[1]);
+    }
+
+    /**
+     * Closes the count opened by {@link #start()} and returns it.
+     */
+    public int stop() {
+        int[] count = counts.get();
+        counts.remove();
+        return count == null ? 0 : count[0];
+    }
+}
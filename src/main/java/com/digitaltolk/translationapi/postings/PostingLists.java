@@ -0,0 +1,222 @@
+package com.digitaltolk.translationapi.postings;
+
+import com.digitaltolk.translationapi.dto.TagMatch;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per locale and tag, the keys of the translations carrying that tag, as a {@link RoaringBitmap} of key
+ * ordinals. Keys get their ordinal the first time they are seen and keep it; the same key has the same
+ * ordinal in every locale, so a locale's bitmaps are dense and compress well.
+ * <p>
+ * One writer at a time, any number of readers without locks. {@link #add} changes bitmaps in place and is
+ * only for filling an instance nobody reads yet; {@link #replace}, {@link #removeTag} and {@link #mergeTag}
+ * swap in changed copies, so a reader always works on bitmaps nobody modifies.
+ */
+public final class PostingLists {
+
+    // rough cost of a key String with its array, and of its HashMap node
+    private static final int KEY_OVERHEAD_BYTES = 100;
+
+    private final Map<String, Integer> keyOrdinals = new HashMap<>();
+    private volatile String[] keys = new String[1024];
+    private int keyCount;
+    private final Map<String, Map<UUID, RoaringBitmap>> byLocale = new ConcurrentHashMap<>();
+
+    /**
+     * Records that {@code key} in {@code locale} carries {@code tagId}.
+     */
+    public void add(String locale, String key, UUID tagId) {
+        byLocale.computeIfAbsent(locale, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(tagId, id -> new RoaringBitmap())
+                .add(ordinal(key));
+    }
+
+    /**
+     * Sets the tags of the given keys in {@code locale}, an empty set removes a key from every list. Each
+     * list is copied at most once however many of the keys it gains or loses.
+     */
+    public void replace(String locale, Map<String, Set<UUID>> tagsByKey) {
+        Map<UUID, RoaringBitmap> tags = byLocale.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+
+        RoaringBitmap changed = new RoaringBitmap();
+        Map<UUID, RoaringBitmap> wanted = new HashMap<>();
+        tagsByKey.forEach((key, tagIds) -> {
+            Integer existing = keyOrdinals.get(key);
+            if (existing == null && tagIds.isEmpty()) return;
+            int ordinal = existing != null ? existing : ordinal(key);
+            changed.add(ordinal);
+            tagIds.forEach(tagId -> wanted.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(ordinal));
+        });
+
+        for (Map.Entry<UUID, RoaringBitmap> entry : tags.entrySet()) {
+            RoaringBitmap current = entry.getValue();
+            RoaringBitmap keep = wanted.remove(entry.getKey());
+            // keys of this write the list holds but shouldn't anymore, and the ones it should but doesn't
+            RoaringBitmap dropped = RoaringBitmap.and(current, changed);
+            if (keep != null) dropped.andNot(keep);
+            boolean adds = keep != null && !current.contains(keep);
+            if (dropped.isEmpty() && !adds) continue;
+
+            RoaringBitmap updated = RoaringBitmap.andNot(current, dropped);
+            if (keep != null) updated.or(keep);
+            if (updated.isEmpty()) {
+                tags.remove(entry.getKey());
+            } else {
+                updated.runOptimize();
+                tags.put(entry.getKey(), updated);
+            }
+        }
+        // tags this locale had no list for yet
+        wanted.forEach(tags::put);
+    }
+
+    public void removeTag(UUID tagId) {
+        byLocale.values().forEach(tags -> tags.remove(tagId));
+    }
+
+    /**
+     * Hands every key of {@code tagId} to {@code targetId}, in every locale, and drops {@code tagId}.
+     */
+    public void mergeTag(UUID tagId, UUID targetId) {
+        for (Map<UUID, RoaringBitmap> tags : byLocale.values()) {
+            RoaringBitmap moved = tags.get(tagId);
+            if (moved == null) continue;
+
+            RoaringBitmap target = tags.get(targetId);
+            if (target != null) {
+                moved = RoaringBitmap.or(target, moved);
+                moved.runOptimize();
+            }
+            tags.put(targetId, moved);
+            tags.remove(tagId);
+        }
+    }
+
+    /**
+     * Renumbers the keys in sorted order, so lists iterate in key order, and compresses runs of consecutive
+     * keys. Like {@link #add}, only for an instance nobody reads yet; worth it once after adding everything.
+     */
+    public void optimize() {
+        String[] current = keys;
+        Integer[] byKey = new Integer[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            byKey[i] = i;
+        }
+        Arrays.sort(byKey, Comparator.comparing(ordinal -> current[ordinal]));
+
+        int[] renumbered = new int[keyCount];
+        String[] sorted = new String[current.length];
+        for (int rank = 0; rank < keyCount; rank++) {
+            renumbered[byKey[rank]] = rank;
+            sorted[rank] = current[byKey[rank]];
+            keyOrdinals.put(sorted[rank], rank);
+        }
+        keys = sorted;
+
+        for (Map<UUID, RoaringBitmap> tags : byLocale.values()) {
+            tags.replaceAll((tagId, list) -> {
+                int[] ordinals = list.toArray();
+                for (int i = 0; i < ordinals.length; i++) {
+                    ordinals[i] = renumbered[ordinals[i]];
+                }
+                RoaringBitmap optimized = RoaringBitmap.bitmapOfUnordered(ordinals);
+                optimized.runOptimize();
+                return optimized;
+            });
+        }
+    }
+
+    /**
+     * Keys per locale, sorted, of the translations that carry any or all of {@code tagIds}. All locales when
+     * {@code locales} is empty; locales without a match are left out.
+     */
+    public Map<String, List<String>> keys(Collection<UUID> tagIds, TagMatch match, Collection<String> locales) {
+        Map<String, List<String>> result = new TreeMap<>();
+        if (tagIds.isEmpty()) return result;
+
+        for (String locale : locales.isEmpty() ? byLocale.keySet() : locales) {
+            Map<UUID, RoaringBitmap> tags = byLocale.get(locale);
+            if (tags == null) continue;
+
+            RoaringBitmap matched = match(tags, tagIds, match);
+            if (matched.isEmpty()) continue;
+
+            String[] names = keys;
+            List<String> localeKeys = new ArrayList<>(matched.getCardinality());
+            matched.forEach((int ordinal) -> localeKeys.add(names[ordinal]));
+            // a single pass when no key was added since the last optimize()
+            localeKeys.sort(null);
+            result.put(locale, localeKeys);
+        }
+        return result;
+    }
+
+    private static RoaringBitmap match(Map<UUID, RoaringBitmap> tags, Collection<UUID> tagIds, TagMatch match) {
+        List<RoaringBitmap> lists = new ArrayList<>(tagIds.size());
+        for (UUID tagId : tagIds) {
+            RoaringBitmap list = tags.get(tagId);
+            if (list != null) {
+                lists.add(list);
+            } else if (match == TagMatch.ALL) {
+                return new RoaringBitmap();
+            }
+        }
+        if (lists.isEmpty()) return new RoaringBitmap();
+        if (lists.size() == 1) return lists.get(0);
+        return match == TagMatch.ALL
+                ? FastAggregation.and(lists.iterator())
+                : FastAggregation.or(lists.iterator());
+    }
+
+    /**
+     * Number of (locale, key, tag) associations.
+     */
+    public long entries() {
+        long entries = 0;
+        for (Map<UUID, RoaringBitmap> tags : byLocale.values()) {
+            for (RoaringBitmap list : tags.values()) {
+                entries += list.getLongCardinality();
+            }
+        }
+        return entries;
+    }
+
+    public long heapBytes() {
+        long bytes = (long) keys.length * 4 + (long) keyCount * KEY_OVERHEAD_BYTES;
+        for (Map<UUID, RoaringBitmap> tags : byLocale.values()) {
+            for (RoaringBitmap list : tags.values()) {
+                bytes += list.getLongSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private int ordinal(String key) {
+        Integer existing = keyOrdinals.get(key);
+        if (existing != null) return existing;
+
+        int ordinal = keyCount++;
+        String[] current = keys;
+        if (ordinal == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[ordinal] = key;
+        // the volatile write publishes the slot before any list holding the ordinal is
+        keys = current;
+        keyOrdinals.put(key, ordinal);
+        return ordinal;
+    }
+}
@@ -0,0 +1,187 @@
+package com.digitaltolk.translationapi.postings;
+
+import com.digitaltolk.translationapi.dto.TagMatch;
+import com.digitaltolk.translationapi.dto.TranslationTagRow;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationKey;
+import com.digitaltolk.translationapi.job.CoalescingReloader;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Tag to translation posting lists for the whole catalog, see {@link PostingLists}. Tag-scoped lookups
+ * intersect or union a few bitmaps in memory instead of joining {@code translation_tag}.
+ * <p>
+ * Loaded in the background once the application is ready, and again after bulk writes that don't report
+ * their rows; until the first load finishes, lookups read the associations of the requested tags from the
+ * database. Other writes update the lists after they commit, from the rows as they are in the database
+ * then. Changes that commit while a load runs are applied to it before it is swapped in.
+ */
+@Slf4j
+@Component
+public class TagPostings implements MeterBinder {
+
+    private final TranslationRepository translationRepository;
+    private final TransactionTemplate refreshTransaction;
+
+    private volatile PostingLists postings;
+    // changes committed while a load runs, guarded by this
+    private List<Consumer<PostingLists>> pending;
+    private final CoalescingReloader reloader;
+
+    public TagPostings(TranslationRepository translationRepository,
+                       PlatformTransactionManager transactionManager,
+                       TaskExecutor taskExecutor) {
+        this.translationRepository = translationRepository;
+        // reads from the primary, like the dictionary's refreshes
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloader = new CoalescingReloader(taskExecutor, this::reload, "Tag posting lists");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("translation.tag.postings.entries", this, TagPostings::entries)
+                .description("Tag associations in the in-memory posting lists")
+                .register(registry);
+        Gauge.builder("translation.tag.postings.heap", this, TagPostings::heapBytes)
+                .description("Estimated heap held by the in-memory posting lists")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        requestReload();
+    }
+
+    public boolean isReady() {
+        return postings != null;
+    }
+
+    /**
+     * Keys per locale, sorted, of the translations carrying any or all of {@code tagIds}, in
+     * {@code locales} or in every locale when that is empty.
+     */
+    public Map<String, List<String>> keys(Collection<UUID> tagIds, TagMatch match, Collection<String> locales) {
+        PostingLists current = postings;
+        if (current == null) {
+            current = new PostingLists();
+            if (!tagIds.isEmpty()) {
+                for (TranslationTagRow row : translationRepository.findTagRowsByTagIdIn(tagIds)) {
+                    current.add(row.getLocale(), row.getKey(), row.getTagId());
+                }
+            }
+        }
+        return current.keys(tagIds, match, locales);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        if (event.translationIds().isEmpty()) {
+            requestReload();
+            return;
+        }
+        apply(lists -> refresh(lists, event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        if (!event.deleted().isEmpty()) {
+            apply(lists -> {
+                event.mergedInto().forEach(lists::mergeTag);
+                event.deleted().forEach(lists::removeTag);
+            });
+        }
+    }
+
+    private synchronized void apply(Consumer<PostingLists> change) {
+        if (pending != null) pending.add(change);
+        if (postings != null) change.accept(postings);
+    }
+
+    private void refresh(PostingLists lists, TranslationChangedEvent event) {
+        // renamed and deleted pairs start out untagged; a row below that took one over fills its tags back in
+        Map<String, Map<String, Set<UUID>>> tagsByLocale = new HashMap<>();
+        for (TranslationKey removed : event.removedKeys()) {
+            if (removed.locale() != null && removed.key() != null) {
+                tagsByLocale.computeIfAbsent(removed.locale(), locale -> new HashMap<>()).put(removed.key(), new HashSet<>());
+            }
+        }
+        List<TranslationTagRow> rows = refreshTransaction.execute(status ->
+                TranslationRepository.inChunks(event.translationIds(), translationRepository::findTagRowsByIdIn));
+        for (TranslationTagRow row : rows) {
+            Set<UUID> tags = tagsByLocale.computeIfAbsent(row.getLocale(), locale -> new HashMap<>())
+                    .computeIfAbsent(row.getKey(), key -> new HashSet<>());
+            if (row.getTagId() != null) tags.add(row.getTagId());
+        }
+        tagsByLocale.forEach(lists::replace);
+    }
+
+    /**
+     * Schedules a reload of every association in the background; see {@link CoalescingReloader}.
+     */
+    public void requestReload() {
+        reloader.request();
+    }
+
+    void reload() {
+        long started = System.nanoTime();
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        try {
+            PostingLists loaded = new PostingLists();
+            refreshTransaction.executeWithoutResult(status -> {
+                try (Stream<TranslationTagRow> rows = translationRepository.streamTagRows()) {
+                    rows.forEach(row -> loaded.add(row.getLocale(), row.getKey(), row.getTagId()));
+                }
+            });
+            loaded.optimize();
+
+            synchronized (this) {
+                pending.forEach(change -> change.accept(loaded));
+                postings = loaded;
+            }
+            log.info("Tag posting lists loaded {} associations in {} ms, {} bytes",
+                    loaded.entries(), (System.nanoTime() - started) / 1_000_000, loaded.heapBytes());
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+
+    private long entries() {
+        PostingLists current = postings;
+        return current == null ? 0 : current.entries();
+    }
+
+    private long heapBytes() {
+        PostingLists current = postings;
+        return current == null ? 0 : current.heapBytes();
+    }
+}
@@ -0,0 +1,43 @@
+package com.digitaltolk.translationapi.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last change of a delta page, in {@code (time, deletes before upserts, id)} order, along
+ * with the end of the window the first page fixed, so later pages don't pick up newer writes. Clients only
+ * ever see the opaque {@link #encode()} form.
+ */
+public record DeltaCursor(LocalDateTime until, LocalDateTime at, boolean delete, UUID id) {
+
+    // sorts after every id, so a window starting at `since` leaves out the changes made exactly then
+    private static final UUID LAST = new UUID(-1L, -1L);
+
+    /**
+     * Before the first change after {@code since}.
+     */
+    public static DeltaCursor start(LocalDateTime since, LocalDateTime until) {
+        return new DeltaCursor(until, since, false, LAST);
+    }
+
+    public String encode() {
+        String plain = until + "|" + at + "|" + (delete ? "d" : "u") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DeltaCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4 || !(parts[2].equals("d") || parts[2].equals("u"))) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            return new DeltaCursor(LocalDateTime.parse(parts[0]), LocalDateTime.parse(parts[1]),
+                    parts[2].equals("d"), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.digitaltolk.translationapi.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page in {@code (key, locale)} order. The pair is unique, so it is a
+ * total order without an id tie-breaker. Clients only ever see the opaque {@link #encode()} form.
+ */
+public record KeysetCursor(String key, String locale) {
+
+    public String encode() {
+        return encodePart(key) + "." + encodePart(locale);
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 2) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        try {
+            return new KeysetCursor(decodePart(parts[0]), decodePart(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private static String encodePart(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String value) {
+        return new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+}
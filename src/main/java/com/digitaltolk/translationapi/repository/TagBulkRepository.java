@@ -0,0 +1,39 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.entity.Tag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based tag writes that bypass the persistence context.
+ */
+public interface TagBulkRepository {
+
+    /**
+     * Inserts the names that don't exist yet in one statement and returns the tags it created. Names that
+     * already exist, including ones inserted concurrently, are skipped rather than failing the batch.
+     */
+    List<Tag> insertMissing(Collection<String> names);
+
+    /**
+     * The tags with any of {@code names}, in one statement however many names there are.
+     */
+    List<Tag> findAllByNames(Collection<String> names);
+
+    long countTranslations(UUID tagId);
+
+    /**
+     * Removes up to {@code limit} of the tag's translation associations in one short statement, handing them
+     * to {@code mergeInto} unless that is null; translations already carrying {@code mergeInto} just lose
+     * the tag. Returns how many associations the tag lost.
+     */
+    int detachBatch(UUID tagId, UUID mergeInto, int limit);
+
+    /**
+     * Detaches whatever associations are left, the same way as {@link #detachBatch}, and deletes the tag, in
+     * one statement. Returns false when the tag was already gone.
+     */
+    boolean deleteDetached(UUID tagId, UUID mergeInto);
+}
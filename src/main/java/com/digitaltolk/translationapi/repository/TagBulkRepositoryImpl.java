@@ -0,0 +1,144 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.id.UuidV7;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sends the whole batch as arrays, so creating 10k tags is a lookup of the names that exist and one plain
+ * insert of the rest; only when a concurrent writer wins the race does it fall back to {@code ON CONFLICT}.
+ * <p>
+ * Detaching runs each batch as its own statement outside any transaction, so row locks on
+ * {@code translation_tag} are held for one batch at a time and writers tagging translations never wait
+ * for a whole delete or merge.
+ */
+@RequiredArgsConstructor
+public class TagBulkRepositoryImpl implements TagBulkRepository {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Tag> insertMissing(Collection<String> names) {
+
+        if (names.isEmpty()) return List.of();
+
+        // probing the unique index up front is cheaper than letting ON CONFLICT do it row by row
+        Set<String> fresh = new LinkedHashSet<>(names);
+        findAllByNames(names).forEach(tag -> fresh.remove(tag.getName()));
+        if (fresh.isEmpty()) return List.of();
+
+        return jdbcTemplate.execute((ConnectionCallback<List<Tag>>) connection -> {
+            // a failed statement aborts the surrounding transaction, unless it is rolled back to a savepoint
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                List<Tag> created = insert(connection, fresh, "");
+                if (savepoint != null) connection.releaseSavepoint(savepoint);
+                return created;
+            } catch (SQLException ex) {
+                if (!UNIQUE_VIOLATION.equals(ex.getSQLState())) throw ex;
+                // another writer inserted some of the names since the check
+                if (savepoint != null) connection.rollback(savepoint);
+                return insert(connection, fresh, " ON CONFLICT (name) DO NOTHING");
+            }
+        });
+    }
+
+    @Override
+    public List<Tag> findAllByNames(Collection<String> names) {
+
+        if (names.isEmpty()) return List.of();
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, name FROM tag WHERE name = ANY(?)");
+            statement.setArray(1, connection.createArrayOf("text", names.toArray()));
+            return statement;
+        }, TagBulkRepositoryImpl::tag);
+    }
+
+    private static List<Tag> insert(Connection connection, Collection<String> names, String onConflict) throws SQLException {
+
+        UUID[] ids = new UUID[names.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UuidV7.next();
+        }
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO tag (id, name)
+                SELECT * FROM unnest(?::uuid[], ?::text[])%s
+                RETURNING id, name""".formatted(onConflict))) {
+            statement.setArray(1, connection.createArrayOf("uuid", ids));
+            statement.setArray(2, connection.createArrayOf("text", names.toArray()));
+            List<Tag> created = new ArrayList<>(ids.length);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    created.add(tag(rs, created.size()));
+                }
+            }
+            return created;
+        }
+    }
+
+    private static Tag tag(ResultSet rs, int rowNum) throws SQLException {
+        return Tag.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .build();
+    }
+
+    @Override
+    public long countTranslations(UUID tagId) {
+
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM translation_tag WHERE tag_id = ?",
+                Long.class, tagId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int detachBatch(UUID tagId, UUID mergeInto, int limit) {
+
+        // ANY(ARRAY(...)) makes the batch an index lookup on the primary key instead of a semi-join
+        String detach = """
+                DELETE FROM translation_tag
+                WHERE tag_id = ? AND translation_id = ANY(ARRAY(
+                    SELECT translation_id FROM translation_tag WHERE tag_id = ? LIMIT ?))""";
+        if (mergeInto == null) {
+            return jdbcTemplate.update(detach, tagId, tagId, limit);
+        }
+        Integer moved = jdbcTemplate.queryForObject("WITH " + mergeCtes(detach) + " SELECT count(*) FROM moved", Integer.class,
+                tagId, tagId, limit, mergeInto);
+        return moved != null ? moved : 0;
+    }
+
+    @Override
+    public boolean deleteDetached(UUID tagId, UUID mergeInto) {
+
+        // the foreign key is checked at the end of the statement, after the associations are gone
+        String detach = "DELETE FROM translation_tag WHERE tag_id = ?";
+        String sql = "WITH " + (mergeInto == null ? "detached AS (" + detach + ")" : mergeCtes(detach))
+                + " DELETE FROM tag WHERE id = ?";
+        Object[] args = mergeInto == null ? new Object[]{tagId, tagId} : new Object[]{tagId, mergeInto, tagId};
+        return jdbcTemplate.update(sql, args) > 0;
+    }
+
+    // the detached translations get the target tag unless they already carry it
+    private static String mergeCtes(String detach) {
+        return "moved AS (" + detach + " RETURNING translation_id), "
+                + "added AS (INSERT INTO translation_tag (translation_id, tag_id) "
+                + "SELECT translation_id, ? FROM moved ON CONFLICT DO NOTHING)";
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, UUID> {
+public interface TagRepository extends JpaRepository<Tag, UUID>, TagBulkRepository {
     Optional<Tag> findByName(String name);
     List<Tag> findAllByNameIn(Set<String> names);
 }
\ No newline at end of file
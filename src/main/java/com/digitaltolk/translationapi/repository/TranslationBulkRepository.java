@@ -0,0 +1,19 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.TranslationRequest;
+
+import java.util.Collection;
+
+/**
+ * Set-based writes that bypass the persistence context. Must be called inside a transaction.
+ */
+public interface TranslationBulkRepository {
+
+    /**
+     * Inserts or updates translations by (key, locale). Requests must be unique by (key, locale).
+     * Tags of a row are replaced when its {@code tagIds} is not null and left untouched otherwise. A row
+     * counts as updated, and gets a new {@code updatedAt}, when its value or its tags changed.
+     */
+    BulkUpsertResponse upsertAll(Collection<TranslationRequest> translations);
+}
@@ -0,0 +1,167 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.TranslationRequest;
+import com.digitaltolk.translationapi.id.UuidV7;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Stages rows with {@code COPY} into temp tables and merges them with one set-based statement per table,
+ * so the cost is a handful of round trips regardless of the batch size.
+ */
+@RequiredArgsConstructor
+public class TranslationBulkRepositoryImpl implements TranslationBulkRepository {
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public BulkUpsertResponse upsertAll(Collection<TranslationRequest> translations) {
+
+        if (translations.isEmpty()) {
+            return BulkUpsertResponse.builder().build();
+        }
+
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE translation_upsert_stage (
+                    id uuid, key text, locale text, value text, replace_tags boolean
+                ) ON COMMIT DROP""");
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE translation_tag_upsert_stage (
+                    key text, locale text, tag_id uuid
+                ) ON COMMIT DROP""");
+
+        copy("COPY translation_upsert_stage (id, key, locale, value, replace_tags) FROM STDIN (FORMAT csv)", out -> {
+            for (TranslationRequest translation : translations) {
+                out.write(UuidV7.next().toString());
+                out.write(',');
+                writeCsv(out, translation.getKey());
+                out.write(',');
+                writeCsv(out, translation.getLocale());
+                out.write(',');
+                writeCsv(out, translation.getValue());
+                out.write(',');
+                out.write(translation.getTagIds() != null ? "t" : "f");
+                out.write('\n');
+            }
+        });
+        copy("COPY translation_tag_upsert_stage (key, locale, tag_id) FROM STDIN (FORMAT csv)", out -> {
+            for (TranslationRequest translation : translations) {
+                if (translation.getTagIds() == null) continue;
+                for (UUID tagId : translation.getTagIds()) {
+                    writeCsv(out, translation.getKey());
+                    out.write(',');
+                    writeCsv(out, translation.getLocale());
+                    out.write(',');
+                    out.write(tagId.toString());
+                    out.write('\n');
+                }
+            }
+        });
+        jdbcTemplate.execute("ANALYZE translation_upsert_stage");
+        jdbcTemplate.execute("ANALYZE translation_tag_upsert_stage");
+
+        jdbcTemplate.execute("CREATE TEMP TABLE translation_upsert_changed (id uuid, inserted boolean) ON COMMIT DROP");
+
+        // unchanged rows are filtered by the DO UPDATE ... WHERE clause and never returned;
+        // xmax = 0 only holds for freshly inserted tuples
+        jdbcTemplate.update("""
+                WITH upserted AS (
+                    INSERT INTO translation AS t (id, key, locale, value, created_at, updated_at)
+                    SELECT s.id, s.key, s.locale, s.value, statement_timestamp()::timestamp, statement_timestamp()::timestamp
+                    FROM translation_upsert_stage s
+                    ON CONFLICT (key, locale) DO UPDATE
+                        SET value = EXCLUDED.value, updated_at = EXCLUDED.updated_at
+                        WHERE t.value IS DISTINCT FROM EXCLUDED.value
+                    RETURNING t.id, (t.xmax = 0) AS inserted
+                )
+                INSERT INTO translation_upsert_changed SELECT id, inserted FROM upserted""");
+
+        // rows whose tags changed while their value didn't count as updated too, and get a new updated_at
+        // so delta exports pick them up
+        long retagged = jdbcTemplate.queryForObject("""
+                WITH removed AS (
+                    DELETE FROM translation_tag tt
+                    USING translation t, translation_upsert_stage s
+                    WHERE tt.translation_id = t.id
+                      AND t.key = s.key AND t.locale = s.locale AND s.replace_tags
+                      AND NOT EXISTS (
+                          SELECT 1 FROM translation_tag_upsert_stage ts
+                          WHERE ts.key = s.key AND ts.locale = s.locale AND ts.tag_id = tt.tag_id
+                      )
+                    RETURNING tt.translation_id
+                ), added AS (
+                    INSERT INTO translation_tag (translation_id, tag_id)
+                    SELECT t.id, ts.tag_id
+                    FROM translation_tag_upsert_stage ts
+                    JOIN translation t ON t.key = ts.key AND t.locale = ts.locale
+                    ON CONFLICT DO NOTHING
+                    RETURNING translation_id
+                ), retagged AS (
+                    UPDATE translation t SET updated_at = statement_timestamp()::timestamp
+                    WHERE t.id IN (SELECT translation_id FROM removed UNION SELECT translation_id FROM added)
+                      AND NOT EXISTS (SELECT 1 FROM translation_upsert_changed c WHERE c.id = t.id)
+                    RETURNING t.id
+                )
+                SELECT count(*) FROM retagged""", Long.class);
+
+        long[] counts = jdbcTemplate.queryForObject(
+                "SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM translation_upsert_changed",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2) + retagged});
+
+        long inserted = counts[0];
+        long updated = counts[1];
+        return BulkUpsertResponse.builder()
+                .received(translations.size())
+                .inserted(inserted)
+                .updated(updated)
+                .unchanged(translations.size() - inserted - updated)
+                .build();
+    }
+
+    private void copy(String sql, CopyWriter writer) {
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_SIZE), StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+                writer.write(out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return null;
+        });
+    }
+
+    private static void writeCsv(Writer out, String value) throws IOException {
+
+        // an unquoted empty field is NULL in CSV mode, a quoted one is the empty string
+        if (value == null) return;
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    @FunctionalInterface
+    private interface CopyWriter {
+        void write(Writer out) throws IOException;
+    }
+}
@@ -0,0 +1,18 @@
+package com.digitaltolk.translationapi.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where delta exports may end their window. Changes are stamped with the database's
+ * {@code statement_timestamp()} when they are written, not when they commit, so the latest stamp is not
+ * enough: a transaction that is still running may commit rows stamped earlier.
+ */
+public interface TranslationChangeRepository {
+
+    /**
+     * The latest time up to which every change is committed: just before the oldest stamp a transaction
+     * still in progress on the primary may have written or may still write, or before the database's current
+     * time when none is. Runs in its own transaction on the primary, whatever the caller's.
+     */
+    LocalDateTime findDeltaWindowEnd();
+}
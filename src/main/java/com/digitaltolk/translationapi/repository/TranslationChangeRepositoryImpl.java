@@ -0,0 +1,37 @@
+package com.digitaltolk.translationapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reads {@code pg_stat_activity} of the primary. A transaction that already wrote (it has an xid) may hold
+ * rows stamped as early as its start; one that hasn't can only still write from the statement it is running,
+ * stamped from that statement's start on. Long statements therefore hold the window back while they run,
+ * read-only ones included, which delays changes but never loses them. Needs a role that sees other sessions'
+ * activity, such as the table owner or a member of {@code pg_read_all_stats}.
+ */
+@RequiredArgsConstructor
+public class TranslationChangeRepositoryImpl implements TranslationChangeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public LocalDateTime findDeltaWindowEnd() {
+
+        // timestamp columns hold microseconds, so one less leaves out anything stamped at the bound itself
+        return jdbcTemplate.queryForObject("""
+                SELECT (least(statement_timestamp(), min(CASE
+                            WHEN backend_xid IS NOT NULL THEN xact_start
+                            WHEN state = 'active' THEN query_start
+                        END)) - interval '1 microsecond')::timestamp
+                FROM pg_stat_activity
+                WHERE datname = current_database()
+                  AND backend_type = 'client backend'
+                  AND pid <> pg_backend_pid()""", LocalDateTime.class);
+    }
+}
@@ -1,47 +1,148 @@
 package com.digitaltolk.translationapi.repository;
 
+import com.digitaltolk.translationapi.dto.TranslationChangeRow;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.dto.TranslationTagRow;
 import com.digitaltolk.translationapi.entity.Translation;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Repository
-public interface TranslationRepository extends JpaRepository<Translation, UUID> {
+public interface TranslationRepository extends JpaRepository<Translation, UUID>, TranslationBulkRepository, TranslationSearchRepository,
+        TranslationChangeRepository {
+
+    // ids per IN list; padded to the next power of two this stays well below PostgreSQL's bind parameter limit
+    int ID_CHUNK_SIZE = 10_000;
+
+    /**
+     * Runs {@code query} once per {@link #ID_CHUNK_SIZE} ids and concatenates the results, so the ids of a
+     * large bulk create don't end up in a single IN list.
+     */
+    static <T> List<T> inChunks(Collection<UUID> ids, Function<Collection<UUID>, List<T>> query) {
+        if (ids.size() <= ID_CHUNK_SIZE) {
+            return query.apply(ids);
+        }
+        List<UUID> all = List.copyOf(ids);
+        List<T> results = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            results.addAll(query.apply(all.subList(from, Math.min(from + ID_CHUNK_SIZE, all.size()))));
+        }
+        return results;
+    }
 
     @EntityGraph(attributePaths = {"tags"})
     Optional<Translation> findWithTagsById(UUID id);
+    @EntityGraph(attributePaths = {"tags"})
+    List<Translation> findWithTagsByIdIn(Collection<UUID> ids);
+    @Query("SELECT t.id FROM Translation t WHERE t.key = :key AND t.locale = :locale")
+    Optional<UUID> findIdByKeyAndLocale(@Param("key") String key, @Param("locale") String locale);
+    @Query("SELECT t.value FROM Translation t WHERE t.key = :key AND t.locale = :locale")
+    Optional<String> findValueByKeyAndLocale(@Param("key") String key, @Param("locale") String locale);
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationExportRow(t.locale, t.key, t.value)
+    FROM Translation t
+    WHERE t.id IN :ids AND t.locale IS NOT NULL AND t.key IS NOT NULL
+    """)
+    List<TranslationExportRow> findExportRowsByIdIn(@Param("ids") Collection<UUID> ids);
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationExportRow(t.locale, t.key, t.value)
+    FROM Translation t
+    WHERE t.key = :key AND t.locale IN :locales
+    """)
+    List<TranslationExportRow> findExportRowsByKeyAndLocaleIn(@Param("key") String key, @Param("locales") Collection<String> locales);
     @Modifying
     @Query(value = "DELETE FROM translation_tag WHERE translation_id = :translationId", nativeQuery = true)
     void removeAllTagsFromTranslation(@Param("translationId") UUID translationId);
 
     @Query("""
-    SELECT DISTINCT t FROM Translation t
-    LEFT JOIN t.tags tag
-    WHERE (:keysNull = TRUE OR t.key IN :keys)
-      AND (:valuesNull = TRUE OR t.value IN :values)
+    SELECT new com.digitaltolk.translationapi.dto.TranslationExportRow(t.locale, t.key, t.value)
+    FROM Translation t
+    WHERE t.locale IS NOT NULL AND t.key IS NOT NULL
       AND (:localesNull = TRUE OR t.locale IN :locales)
-      AND (:tagsNull = TRUE OR tag.name IN :tagNames)
+      AND (:tagsNull = TRUE OR EXISTS (SELECT 1 FROM t.tags tag WHERE tag.name IN :tagNames))
+    ORDER BY t.locale, t.key
     """)
-    @EntityGraph(attributePaths = {"tags"})
-    Page<Translation> searchWithFilters(
-            @Param("keys") List<String> keys,
-            @Param("values") List<String> values,
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TranslationExportRow> streamForExport(
+            @Param("locales") List<String> locales,
+            @Param("tagNames") List<String> tagNames,
+            @Param("localesNull") boolean localesNull,
+            @Param("tagsNull") boolean tagsNull
+    );
+
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationTagRow(t.locale, t.key, tag.id)
+    FROM Translation t JOIN t.tags tag
+    WHERE t.locale IS NOT NULL AND t.key IS NOT NULL
+    """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TranslationTagRow> streamTagRows();
+
+    // untagged rows come back once with a null tag id
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationTagRow(t.locale, t.key, tag.id)
+    FROM Translation t LEFT JOIN t.tags tag
+    WHERE t.id IN :ids AND t.locale IS NOT NULL AND t.key IS NOT NULL
+    """)
+    List<TranslationTagRow> findTagRowsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationTagRow(t.locale, t.key, tag.id)
+    FROM Translation t JOIN t.tags tag
+    WHERE tag.id IN :tagIds AND t.locale IS NOT NULL AND t.key IS NOT NULL
+    """)
+    List<TranslationTagRow> findTagRowsByTagIdIn(@Param("tagIds") Collection<UUID> tagIds);
+
+    @Query("""
+    SELECT DISTINCT new com.digitaltolk.translationapi.dto.TranslationExportRow(t.locale, t.key, t.value)
+    FROM Translation t JOIN t.tags tag
+    WHERE tag.id IN :tagIds AND t.locale IS NOT NULL AND t.key IS NOT NULL
+    """)
+    List<TranslationExportRow> findExportRowsByTagIdIn(@Param("tagIds") Collection<UUID> tagIds);
+
+    /**
+     * Up to {@code pageable}'s size of the rows written after the cursor position {@code (at, afterDelete, id)}
+     * and no later than {@code until}, in {@code (updatedAt, id)} order. Upserts sort after deletes made at the
+     * same time, so after a delete every row written at {@code at} is still to come.
+     */
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationChangeRow(t.id, t.updatedAt, t.locale, t.key, t.value)
+    FROM Translation t
+    WHERE t.updatedAt >= :at AND t.updatedAt <= :until
+      AND (t.updatedAt > :at OR :afterDelete = TRUE OR t.id > :id)
+      AND (:localesNull = TRUE OR t.locale IN :locales)
+    ORDER BY t.updatedAt, t.id
+    """)
+    List<TranslationChangeRow> findChangedAfter(
+            @Param("at") LocalDateTime at,
+            @Param("afterDelete") boolean afterDelete,
+            @Param("id") UUID id,
+            @Param("until") LocalDateTime until,
             @Param("locales") List<String> locales,
-            @Param("tagNames") Set<String> tagNames,
-            @Param("keysNull") boolean keysNull,
-            @Param("valuesNull") boolean valuesNull,
             @Param("localesNull") boolean localesNull,
-            @Param("tagsNull") boolean tagsNull,
             Pageable pageable
     );
-}
\ No newline at end of file
+}
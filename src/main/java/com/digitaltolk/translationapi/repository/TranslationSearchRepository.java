@@ -0,0 +1,47 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.dto.TranslationTextMatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * First phase of a search: the ids of one page, selected with SQL that only contains the predicates the
+ * request actually uses. Tags are matched with {@code EXISTS} subqueries, never joined, so rows are not
+ * multiplied and paging stays in the database. Callers load the entities for the ids afterwards.
+ */
+public interface TranslationSearchRepository {
+
+    /**
+     * Ids of one offset page in {@code (key, locale, id)} order. The count query only runs when the page
+     * alone can't tell the total.
+     */
+    Page<UUID> searchIds(TranslationSearchRequest filter, Pageable pageable);
+
+    /**
+     * One page of rows matching {@code filter.query}, best first. A row matches when its value matches the
+     * query as full text in the row's locale, or, for queries of three characters or more, when the value
+     * or key contains it. With {@code fuzzy}, values with a word similar to the query match too. The other
+     * filters apply as usual.
+     */
+    Page<TranslationTextMatch> searchText(TranslationSearchRequest filter, Pageable pageable);
+
+    /**
+     * Ids of up to {@code limit} translations after {@code after} (or from the start when null) in
+     * {@code (key, locale)} order. Rows without a key or locale have no position and are skipped, and
+     * every page is an index range scan that starts at the cursor no matter how deep it is.
+     */
+    List<UUID> seekIds(TranslationSearchRequest filter, KeysetCursor after, int limit);
+
+    /**
+     * Rows of one locale that have a value, optionally only those carrying one of {@code tagNames}, in code
+     * point order of their keys whatever the database collation, so a fallback export can merge several
+     * locales key by key. Must be consumed inside a transaction and closed.
+     */
+    Stream<TranslationExportRow> streamLocaleInKeyOrder(String locale, List<String> tagNames);
+}
@@ -0,0 +1,223 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.dto.TagMatch;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.dto.TranslationTextMatch;
+import jakarta.persistence.Query;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class TranslationSearchRepositoryImpl implements TranslationSearchRepository {
+
+    // trigram indexes can't serve patterns shorter than one trigram
+    private static final int MIN_SUBSTRING_QUERY_LENGTH = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UUID> searchIds(TranslationSearchRequest filter, Pageable pageable) {
+
+        Map<String, Object> params = new HashMap<>();
+        String where = where(filter, params);
+
+        TypedQuery<UUID> query = entityManager.createQuery(
+                "SELECT t.id FROM Translation t WHERE " + where + " ORDER BY t.key, t.locale, t.id", UUID.class);
+        params.forEach(query::setParameter);
+        List<UUID> ids = query
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(ids, pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(
+                    "SELECT count(t) FROM Translation t WHERE " + where, Long.class);
+            params.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+
+    @Override
+    public List<UUID> seekIds(TranslationSearchRequest filter, KeysetCursor after, int limit) {
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT t.id FROM Translation t WHERE ")
+                .append(where(filter, params))
+                .append(" AND t.key IS NOT NULL AND t.locale IS NOT NULL");
+        if (after != null) {
+            // row comparison maps onto the (key, locale) unique index as a single range condition
+            jpql.append(" AND (t.key, t.locale) > (:afterKey, :afterLocale)");
+            params.put("afterKey", after.key());
+            params.put("afterLocale", after.locale());
+        }
+        jpql.append(" ORDER BY t.key, t.locale");
+
+        TypedQuery<UUID> query = entityManager.createQuery(jpql.toString(), UUID.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TranslationExportRow> streamLocaleInKeyOrder(String locale, List<String> tagNames) {
+
+        boolean tagsNull = tagNames == null || tagNames.isEmpty();
+        // ucs_basic sorts by code point; the export's (locale, key) index only helps when it is the database collation
+        TypedQuery<TranslationExportRow> query = entityManager.createQuery("""
+                SELECT new com.digitaltolk.translationapi.dto.TranslationExportRow(t.locale, t.key, t.value)
+                FROM Translation t
+                WHERE t.locale = :locale AND t.key IS NOT NULL AND t.value IS NOT NULL%s
+                ORDER BY collate(t.key as ucs_basic)""".formatted(
+                tagsNull ? "" : " AND EXISTS (SELECT 1 FROM t.tags tag WHERE tag.name IN :tagNames)"),
+                TranslationExportRow.class);
+        query.setParameter("locale", locale);
+        if (!tagsNull) {
+            query.setParameter("tagNames", tagNames);
+        }
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<TranslationTextMatch> searchText(TranslationSearchRequest filter, Pageable pageable) {
+
+        Map<String, Object> params = new HashMap<>();
+        String where = nativeWhere(filter, params);
+
+        // ranking has to visit every match anyway, so the window count comes for free instead of a second
+        // scan; the headline is only computed for the rows of the page, with the MATCH_START/MATCH_END control
+        // characters as markers (removed from the value first), and made into HTML by the caller
+        Query query = entityManager.createNativeQuery("""
+                SELECT p.id, p.rank,
+                       CASE WHEN p.fts THEN ts_headline(translation_ts_config(t.locale), translate(t.value, chr(2) || chr(3), ''),
+                           websearch_to_tsquery(translation_ts_config(t.locale), :query),
+                           'StartSel="' || chr(2) || '", StopSel="' || chr(3) || '", HighlightAll=true') END,
+                       p.total
+                FROM (
+                    SELECT t.id, t.key, t.locale,
+                           t.search_vector @@ websearch_to_tsquery(translation_ts_config(t.locale), :query) AS fts,
+                           ts_rank(t.search_vector, websearch_to_tsquery(translation_ts_config(t.locale), :query))%s AS rank,
+                           count(*) OVER () AS total
+                    FROM translation t
+                    WHERE %s
+                    ORDER BY rank DESC, t.key, t.locale, t.id
+                    OFFSET :offset LIMIT :limit
+                ) p
+                JOIN translation t ON t.id = p.id
+                ORDER BY p.rank DESC, p.key, p.locale, p.id""".formatted(
+                filter.isFuzzy() ? " + word_similarity(:query, coalesce(t.value, ''))" : "", where));
+        params.forEach(query::setParameter);
+        query.setParameter("offset", pageable.getOffset());
+        query.setParameter("limit", pageable.getPageSize());
+
+        List<Object[]> rows = query.getResultList();
+        List<TranslationTextMatch> matches = rows.stream()
+                .map(row -> new TranslationTextMatch((UUID) row[0], ((Number) row[1]).doubleValue(), (String) row[2]))
+                .toList();
+        if (!rows.isEmpty()) {
+            return new PageImpl<>(matches, pageable, ((Number) rows.get(0)[3]).longValue());
+        }
+
+        // past the last page the window has no row to report on
+        return PageableExecutionUtils.getPage(matches, pageable, () -> {
+            Query count = entityManager.createNativeQuery("SELECT count(*) FROM translation t WHERE " + where);
+            params.forEach(count::setParameter);
+            return ((Number) count.getSingleResult()).longValue();
+        });
+    }
+
+    private static String nativeWhere(TranslationSearchRequest filter, Map<String, Object> params) {
+
+        String text = filter.getQuery().trim();
+        params.put("query", text);
+
+        // a query that doesn't depend on the row finds candidates through the index, the one built with the
+        // row's own configuration confirms them; with a locale filter only those configurations are tried
+        StringBuilder candidates = new StringBuilder();
+        List<String> locales = filter.getLocales();
+        if (locales != null && !locales.isEmpty()) {
+            for (int i = 0; i < locales.size(); i++) {
+                candidates.append(i == 0 ? "" : " || ")
+                        .append("websearch_to_tsquery(translation_ts_config(:ftsLocale").append(i).append("), :query)");
+                params.put("ftsLocale" + i, locales.get(i));
+            }
+        } else {
+            candidates.append("translation_ts_query_any(:query)");
+        }
+        StringBuilder match = new StringBuilder()
+                .append("(t.search_vector @@ (").append(candidates).append(")")
+                .append(" AND t.search_vector @@ websearch_to_tsquery(translation_ts_config(t.locale), :query))");
+        if (text.length() >= MIN_SUBSTRING_QUERY_LENGTH) {
+            match.append(" OR t.value ILIKE :pattern OR t.key ILIKE :pattern");
+            params.put("pattern", "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            if (filter.isFuzzy()) {
+                // word similarity finds typos, but common trigrams make it the most expensive branch
+                match.append(" OR :query <% t.value");
+            }
+        }
+
+        StringBuilder where = new StringBuilder("(").append(match).append(")");
+        in(where, params, "t.key", "keys", filter.getKeys());
+        in(where, params, "t.value", "values", filter.getValues());
+        in(where, params, "t.locale", "locales", filter.getLocales());
+        if (filter.getTags() != null && !filter.getTags().isEmpty()) {
+            params.put("tagNames", filter.getTags());
+            String tagged = """
+                    SELECT %s FROM translation_tag tt JOIN tag g ON g.id = tt.tag_id
+                    WHERE tt.translation_id = t.id AND g.name IN (:tagNames)""";
+            if (filter.getTagMatch() == TagMatch.ALL) {
+                where.append(" AND (").append(tagged.formatted("count(*)")).append(") = :tagCount");
+                params.put("tagCount", (long) filter.getTags().size());
+            } else {
+                where.append(" AND EXISTS (").append(tagged.formatted("1")).append(")");
+            }
+        }
+        return where.toString();
+    }
+
+    private static String where(TranslationSearchRequest filter, Map<String, Object> params) {
+
+        StringBuilder where = new StringBuilder("1 = 1");
+        if (filter == null) {
+            return where.toString();
+        }
+
+        in(where, params, "t.key", "keys", filter.getKeys());
+        in(where, params, "t.value", "values", filter.getValues());
+        in(where, params, "t.locale", "locales", filter.getLocales());
+        if (filter.getTags() != null && !filter.getTags().isEmpty()) {
+            params.put("tagNames", filter.getTags());
+            if (filter.getTagMatch() == TagMatch.ALL) {
+                // tag names are unique, so matching as many names as were asked for means all of them
+                where.append(" AND (SELECT count(tag) FROM t.tags tag WHERE tag.name IN :tagNames) = :tagCount");
+                params.put("tagCount", (long) filter.getTags().size());
+            } else {
+                where.append(" AND EXISTS (SELECT 1 FROM t.tags tag WHERE tag.name IN :tagNames)");
+            }
+        }
+        return where.toString();
+    }
+
+    private static void in(StringBuilder where, Map<String, Object> params, String path, String name, Collection<?> values) {
+        if (values != null && !values.isEmpty()) {
+            where.append(" AND ").append(path).append(" IN (:").append(name).append(")");
+            params.put(name, values);
+        }
+    }
+}
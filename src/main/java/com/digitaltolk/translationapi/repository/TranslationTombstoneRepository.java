@@ -0,0 +1,39 @@
+package com.digitaltolk.translationapi.repository;
+
+import com.digitaltolk.translationapi.dto.TranslationChangeRow;
+import com.digitaltolk.translationapi.entity.TranslationTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TranslationTombstoneRepository extends JpaRepository<TranslationTombstone, UUID> {
+
+    /**
+     * Up to {@code pageable}'s size of the tombstones recorded after the cursor position
+     * {@code (at, afterDelete, id)} and no later than {@code until}, in {@code (deletedAt, id)} order.
+     */
+    @Query("""
+    SELECT new com.digitaltolk.translationapi.dto.TranslationChangeRow(t.id, t.deletedAt, t.locale, t.key)
+    FROM TranslationTombstone t
+    WHERE t.deletedAt >= :at AND t.deletedAt <= :until
+      AND (t.deletedAt > :at OR (:afterDelete = TRUE AND t.id > :id))
+      AND (:localesNull = TRUE OR t.locale IN :locales)
+    ORDER BY t.deletedAt, t.id
+    """)
+    List<TranslationChangeRow> findDeletedAfter(
+            @Param("at") LocalDateTime at,
+            @Param("afterDelete") boolean afterDelete,
+            @Param("id") UUID id,
+            @Param("until") LocalDateTime until,
+            @Param("locales") List<String> locales,
+            @Param("localesNull") boolean localesNull,
+            Pageable pageable
+    );
+}
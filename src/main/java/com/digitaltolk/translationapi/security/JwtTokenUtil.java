@@ -1,50 +1,132 @@
 package com.digitaltolk.translationapi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
+/**
+ * Issues and verifies tokens. The signing key and parser are built once and shared, parsers are
+ * immutable and thread-safe. Verified tokens are cached by their SHA-256 until they expire, so a client
+ * reusing its token costs one hash per request instead of an HMAC check and a JSON parse. Tokens that
+ * fail verification are not cached; they are rejected on every request.
+ */
 @Component
-public class JwtTokenUtil {
+public class JwtTokenUtil implements MeterBinder {
 
-    private Key getSigningKey() {
-        String jwtSecret = "ThisIsASecretKeyThatIsLongEnoughToBeSecureForHS512TokenSigning1234567890";
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private static final String JWT_SECRET = "ThisIsASecretKeyThatIsLongEnoughToBeSecureForHS512TokenSigning1234567890";
+
+    private final Key signingKey = Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtTokenUtil(@Value("${jwt.cache.max-entries:10000}") long maxCachedTokens) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt");
     }
 
     public String generateToken(String username) {
         // 24 hours
-        long jwtExpirationInMs = 86400000;
+        return generateToken(username, 86400000);
+    }
+
+    String generateToken(String username, long jwtExpirationInMs) {
         return Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * The subject of a valid, unexpired token, verifying it at most once while it stays cached.
+     */
+    public Optional<String> verify(String token) {
+        String hash = sha256(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            // the cache may hand out an entry in the instant it expires
+            return cached.expiresAtMillis() > System.currentTimeMillis()
+                    ? Optional.ofNullable(cached.subject())
+                    : Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        // tokens without an expiry are verified every time rather than cached forever
+        if (claims.getExpiration() != null) {
+            verified.put(hash, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+        }
+        return Optional.ofNullable(claims.getSubject());
+    }
+
     public String getUsernameFromJWT(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateToken(String authToken) {
+        return verify(authToken).isPresent();
+    }
+
+    long cachedTokens() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    private static String sha256(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException ex) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    record VerifiedToken(String subject, long expiresAtMillis) {
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            return Math.max(0, token.expiresAtMillis() - System.currentTimeMillis()) * 1_000_000;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,56 +1,181 @@
 package com.digitaltolk.translationapi.seed;
 
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.SeedRequest;
+import com.digitaltolk.translationapi.dto.TranslationRequest;
 import com.digitaltolk.translationapi.entity.Tag;
-import com.digitaltolk.translationapi.entity.Translation;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.job.BackgroundJob;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.repository.TranslationRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Generates synthetic translations for load tests. Rows are produced and written in chunks by a pool of
+ * workers, each chunk in its own transaction through the COPY based {@link TranslationRepository#upsertAll},
+ * so re-running with the same parameters updates nothing and a failed run can simply be repeated.
+ * <p>
+ * One {@link TranslationChangedEvent} is published once the chunks are done, also after a failed run that
+ * committed some of them, so caches, the dictionary, posting lists and the catalog version catch up with the
+ * seeded rows.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataSeeder {
 
+    static final List<String> LOCALES = List.of(
+            "en", "fr", "de", "es", "it", "pt", "nl", "sv", "da", "fi", "nb", "pl", "cs", "ro", "hu", "el",
+            "tr", "ru", "uk", "ar", "he", "hi", "th", "vi", "id", "ms", "ja", "ko", "zh-CN", "zh-TW", "pt-BR", "es-MX");
+
     private final TranslationRepository translationRepository;
     private final TagRepository tagRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public void run() {
-        if (translationRepository.count() >= 100000) {
-            System.out.println("Translations already seeded.");
-            return;
+    public void run(SeedRequest request, BackgroundJob job) {
+        if (request.getMinTagsPerRow() > request.getMaxTagsPerRow()) {
+            throw new RuntimeException("minTagsPerRow must not exceed maxTagsPerRow");
         }
 
-        List<Tag> tags = new ArrayList<>();
-        for (int i = 1; i <= 20; i++) {
-            tags.add(tagRepository.save(Tag.builder().name("tag" + i).build()));
+        TagPicker tagPicker = new TagPicker(ensureTags(request.getTags()), request.getTagSkew());
+        int chunks = (request.getRows() + request.getChunkSize() - 1) / request.getChunkSize();
+        log.info("Seeding {} rows in {} chunks with {} workers", request.getRows(), chunks, request.getParallelism());
+
+        ExecutorService workers = Executors.newFixedThreadPool(request.getParallelism());
+        AtomicBoolean changed = new AtomicBoolean();
+        try {
+            List<Future<?>> results = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int index = chunk;
+                results.add(workers.submit(() -> {
+                    List<TranslationRequest> rows = generate(request, tagPicker, index);
+                    BulkUpsertResponse result = transactionTemplate.execute(status -> translationRepository.upsertAll(rows));
+                    if (result.getInserted() > 0 || result.getUpdated() > 0) {
+                        changed.set(true);
+                    }
+                    job.advance(rows.size());
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Seeding failed: " + ex.getCause().getMessage(), ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Seeding interrupted", ex);
+        } finally {
+            workers.shutdownNow();
+            awaitTermination(workers);
+            // chunks commit on their own, so this runs after every committed one; the job thread is outside
+            // any transaction and listeners see the event right away
+            if (changed.get()) {
+                eventPublisher.publishEvent(new TranslationChangedEvent(Set.of()));
+            }
         }
+    }
 
-        List<Translation> translations = new ArrayList<>();
-        for (int i = 1; i <= 100000; i++) {
-            Translation t = Translation.builder()
-                    .key("key" + i)
-                    .locale(i % 2 == 0 ? "en" : "fr")
-                    .value("value" + i)
-                    .tags(Set.of(tags.get(i % tags.size())))
-                    .build();
-            translations.add(t);
-
-            // batch insert every 1000 records
-            if (i % 1000 == 0) {
-                translationRepository.saveAll(translations);
-                translations.clear();
+    // after a failed chunk the others may still be committing, let them finish before telling the listeners
+    private static void awaitTermination(ExecutorService workers) {
+        try {
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Seeding workers still running after shutdown");
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<UUID> ensureTags(int count) {
+        List<String> names = IntStream.rangeClosed(1, count).mapToObj(i -> "tag" + i).toList();
+        Map<String, Tag> existing = tagRepository.findAllByNameIn(Set.copyOf(names)).stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+
+        List<Tag> missing = names.stream()
+                .filter(name -> !existing.containsKey(name))
+                .map(name -> Tag.builder().name(name).build())
+                .toList();
+        Map<UUID, String> saved = new LinkedHashMap<>();
+        tagRepository.saveAll(missing).forEach(tag -> {
+            existing.put(tag.getName(), tag);
+            saved.put(tag.getId(), tag.getName());
+        });
+        if (!saved.isEmpty()) eventPublisher.publishEvent(TagsChangedEvent.saved(saved));
+
+        return names.stream().map(name -> existing.get(name).getId()).toList();
+    }
+
+    // row i is locale i % locales of key i / locales, so every key exists in every locale
+    static List<TranslationRequest> generate(SeedRequest request, TagPicker tagPicker, int chunk) {
+        long from = (long) chunk * request.getChunkSize();
+        long to = Math.min(from + request.getChunkSize(), request.getRows());
+        SplittableRandom random = new SplittableRandom(request.getRandomSeed() ^ (chunk * 0x9E3779B97F4A7C15L));
+        int tagSpread = request.getMaxTagsPerRow() - request.getMinTagsPerRow() + 1;
+
+        List<TranslationRequest> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            TranslationRequest row = new TranslationRequest();
+            row.setKey("key" + (i / request.getLocales() + 1));
+            row.setLocale(LOCALES.get((int) (i % request.getLocales())));
+            row.setValue("value" + (i + 1));
+            row.setTagIds(tagPicker.pick(random, request.getMinTagsPerRow() + random.nextInt(tagSpread)));
+            rows.add(row);
         }
+        return rows;
+    }
 
-        // save any remaining
-        if (!translations.isEmpty()) {
-            translationRepository.saveAll(translations);
+    /**
+     * Draws distinct tags with probability proportional to {@code 1 / rank^skew}.
+     */
+    static class TagPicker {
+
+        private final List<UUID> tagIds;
+        private final double[] cumulative;
+
+        TagPicker(List<UUID> tagIds, double skew) {
+            this.tagIds = tagIds;
+            this.cumulative = new double[tagIds.size()];
+            double sum = 0;
+            for (int rank = 0; rank < cumulative.length; rank++) {
+                sum += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = sum;
+            }
         }
 
-        System.out.println("100k translations seeded successfully.");
+        Set<UUID> pick(SplittableRandom random, int count) {
+            int wanted = Math.min(count, tagIds.size());
+            Set<UUID> picked = new LinkedHashSet<>();
+            // heavy skew keeps hitting the head, so give up after a bounded number of draws
+            for (int attempt = 0; picked.size() < wanted && attempt < wanted * 32; attempt++) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+                picked.add(tagIds.get(Math.min(index < 0 ? -index - 1 : index, tagIds.size() - 1)));
+            }
+            return picked;
+        }
     }
 }
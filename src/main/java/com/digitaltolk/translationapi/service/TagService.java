@@ -1,10 +1,15 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.dto.TagMatch;
 import com.digitaltolk.translationapi.dto.TagRequest;
 import com.digitaltolk.translationapi.dto.TagResponse;
 import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.job.BackgroundJob;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TagService {
@@ -12,6 +17,9 @@ public interface TagService {
     List<TagResponse> createTags(List<TagRequest> tags);
     List<TagResponse> getAllTags();
     TagResponse getTag(UUID id);
-    boolean deleteTag(UUID id);
+    Optional<BackgroundJob> deleteTag(UUID id);
+    BackgroundJob mergeTag(UUID id, UUID targetId);
     TagResponse updateTag(UUID id, TagRequest tagRequest);
+    Map<String, Map<String, String>> getTranslations(UUID id, List<String> locales);
+    Map<String, Map<String, String>> getTranslations(Collection<String> tagNames, TagMatch match, List<String> locales);
 }
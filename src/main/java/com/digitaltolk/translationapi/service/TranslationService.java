@@ -1,23 +1,37 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.CursorPagedResponse;
 import com.digitaltolk.translationapi.dto.PagedResponse;
+import com.digitaltolk.translationapi.dto.TranslationDeltaResponse;
 import com.digitaltolk.translationapi.dto.TranslationRequest;
 import com.digitaltolk.translationapi.dto.TranslationResponse;
 import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
 import com.digitaltolk.translationapi.entity.Translation;
+import com.digitaltolk.translationapi.export.ExportRowHandler;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.*;
 
 public interface TranslationService {
 //    Translation createTranslation(Translation translation);
     List<TranslationResponse> createTranslations(List<TranslationRequest> translations);
+    BulkUpsertResponse upsertTranslations(List<TranslationRequest> translations);
     PagedResponse<TranslationResponse> getAllTranslations(Pageable pageable);
+    CursorPagedResponse<TranslationResponse> scrollTranslations(String cursor, int size);
     TranslationResponse getTranslation(UUID id);
+    TranslationResponse getTranslation(String key, String locale);
     void deleteTranslation(UUID id);
     TranslationResponse updateTranslation(UUID id, TranslationRequest translationRequest);
     Page<TranslationResponse> search(TranslationSearchRequest translationSearchRequest);
-    Map<String, Map<String, String>> exportTranslations();
+    CursorPagedResponse<TranslationResponse> scrollSearch(TranslationSearchRequest translationSearchRequest);
+    long exportTranslations(List<String> locales, List<String> tags, OutputStream out) throws IOException;
+    long exportWithFallback(List<String> locales, List<String> tags, OutputStream out) throws IOException;
+    long exportRows(List<String> locales, List<String> tags, boolean fallback, ExportRowHandler handler) throws IOException;
+    TranslationDeltaResponse exportChanges(LocalDateTime since, List<String> locales, String page);
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.digitaltolk.translationapi.service.impl;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Rows of a fallback export, one requested locale after the other. Each locale of a chain is read as its
+ * own stream in key order, and the streams are merged key by key, the most specific locale winning, so
+ * only one row per chain locale is held at a time. The streams of a requested locale are opened when it
+ * comes up and closed when it is done.
+ */
+public class FallbackMerge implements Iterator<TranslationExportRow>, AutoCloseable {
+
+    /**
+     * Code point order, which is what {@code ucs_basic} sorts by. {@link String#compareTo} differs from it
+     * for characters outside the Basic Multilingual Plane.
+     */
+    static final Comparator<String> CODE_POINT_ORDER = (a, b) -> {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int left = a.codePointAt(i);
+            int right = b.codePointAt(j);
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+            i += Character.charCount(left);
+            j += Character.charCount(right);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    };
+
+    private final Iterator<String> requested;
+    private final Function<String, List<String>> chains;
+    private final Function<String, Stream<TranslationExportRow>> rowsInKeyOrder;
+
+    private String locale;
+    private List<Cursor> cursors = List.of();
+    private TranslationExportRow next;
+
+    /**
+     * @param rowsInKeyOrder rows of one locale with a value, ordered by {@link #CODE_POINT_ORDER} of their keys
+     */
+    public FallbackMerge(List<String> requested, Function<String, List<String>> chains,
+                         Function<String, Stream<TranslationExportRow>> rowsInKeyOrder) {
+        this.requested = requested.iterator();
+        this.chains = chains;
+        this.rowsInKeyOrder = rowsInKeyOrder;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            Cursor first = null;
+            for (Cursor cursor : cursors) {
+                // ties go to the earlier, more specific locale
+                if (cursor.head != null && (first == null || CODE_POINT_ORDER.compare(cursor.head.getKey(), first.head.getKey()) < 0)) {
+                    first = cursor;
+                }
+            }
+            if (first != null) {
+                String key = first.head.getKey();
+                next = new TranslationExportRow(locale, key, first.head.getValue());
+                for (Cursor cursor : cursors) {
+                    if (cursor.head != null && cursor.head.getKey().equals(key)) {
+                        cursor.advance();
+                    }
+                }
+            } else if (requested.hasNext()) {
+                close();
+                locale = requested.next();
+                cursors = chains.apply(locale).stream()
+                        .map(chainLocale -> new Cursor(rowsInKeyOrder.apply(chainLocale)))
+                        .toList();
+            } else {
+                close();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public TranslationExportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        TranslationExportRow row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        cursors.forEach(cursor -> cursor.rows.close());
+        cursors = List.of();
+    }
+
+    private static final class Cursor {
+
+        private final Stream<TranslationExportRow> rows;
+        private final Iterator<TranslationExportRow> iterator;
+        private TranslationExportRow head;
+
+        Cursor(Stream<TranslationExportRow> rows) {
+            this.rows = rows;
+            this.iterator = rows.iterator();
+            advance();
+        }
+
+        void advance() {
+            head = iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+}
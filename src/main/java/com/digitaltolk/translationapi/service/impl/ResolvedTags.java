@@ -0,0 +1,37 @@
+package com.digitaltolk.translationapi.service.impl;
+
+import com.digitaltolk.translationapi.entity.Tag;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tags loaded by {@link TagResolver}, looked up per request item without further queries.
+ */
+public class ResolvedTags {
+
+    private final Map<UUID, Tag> byId;
+
+    private ResolvedTags(Map<UUID, Tag> byId) {
+        this.byId = byId;
+    }
+
+    public static ResolvedTags of(Collection<Tag> tags) {
+        return new ResolvedTags(tags.stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity(), (a, b) -> a)));
+    }
+
+    public Set<UUID> ids() {
+        return byId.keySet();
+    }
+
+    public Set<Tag> get(Set<UUID> tagIds) {
+
+        if (tagIds == null || tagIds.isEmpty()) return new HashSet<>();
+        return tagIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,37 @@
+package com.digitaltolk.translationapi.service.impl;
+
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the tag IDs of a whole batch of requests with a single query and rejects unknown IDs
+ * before anything is written.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagResolver {
+
+    private final TagRepository tagRepository;
+
+    public ResolvedTags resolve(Collection<UUID> tagIds) {
+
+        Set<UUID> wanted = tagIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (wanted.isEmpty()) return ResolvedTags.of(List.of());
+
+        ResolvedTags resolved = ResolvedTags.of(tagRepository.findAllById(wanted));
+
+        Set<UUID> missing = new TreeSet<>(wanted);
+        missing.removeAll(resolved.ids());
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Tags not found: " + missing);
+        }
+        return resolved;
+    }
+}
@@ -1,63 +1,114 @@
 package com.digitaltolk.translationapi.service.impl;
 
+import com.digitaltolk.translationapi.cache.TagIndex;
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
+import com.digitaltolk.translationapi.dto.TagMatch;
 import com.digitaltolk.translationapi.dto.TagRequest;
 import com.digitaltolk.translationapi.dto.TagResponse;
 import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.postings.TagPostings;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.service.TagService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "tag.service", histogram = true)
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TagIndex tagIndex;
+    private final TagPostings tagPostings;
+    private final TranslationDictionary translationDictionary;
+    private final JobRegistry jobRegistry;
 
-    @Override
-    public List<TagResponse> createTags(List<TagRequest> tagRequests) {
+    // associations detached per statement by delete and merge jobs
+    @Value("${translation.tags.detach-batch-size:1000}")
+    private int detachBatchSize = 1000;
 
-        Set<String> existingNames = tagRepository.findAll().stream()
-                .map(Tag::getName)
-                .collect(Collectors.toSet());
+    // tags a delete or merge job is working on, as source or target
+    private final Set<UUID> busyTags = ConcurrentHashMap.newKeySet();
 
-        List<Tag> toSave = tagRequests.stream()
-                .filter(req -> !existingNames.contains(req.getName()))
-                .map(req -> Tag.builder().name(req.getName()).build())
-                .toList();
+    @Override
+    public List<TagResponse> createTags(List<TagRequest> tagRequests) {
 
-        return tagRepository.saveAll(toSave)
-                .stream()
+        Set<String> missing = tagRequests.stream()
+                .map(TagRequest::getName)
+                .filter(Objects::nonNull)
+                .filter(name -> !tagIndex.contains(name))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (missing.isEmpty()) return List.of();
+
+        List<Tag> created = tagRepository.insertMissing(missing);
+
+        // names another writer inserted first aren't returned, but the index still has to learn about them
+        Map<UUID, String> saved = new LinkedHashMap<>();
+        created.forEach(tag -> saved.put(tag.getId(), tag.getName()));
+        if (created.size() < missing.size()) {
+            created.forEach(tag -> missing.remove(tag.getName()));
+            tagRepository.findAllByNames(missing).forEach(tag -> saved.put(tag.getId(), tag.getName()));
+        }
+        if (!saved.isEmpty()) eventPublisher.publishEvent(TagsChangedEvent.saved(saved));
+
+        return created.stream()
                 .map(this::toResponse).collect(Collectors.toList());
     }
 
     @Override
     public List<TagResponse> getAllTags() {
-        return tagRepository.findAll()
-                .stream()
-                .map(this::toResponse)
+        return tagIndex.all().entrySet().stream()
+                .map(entry -> TagResponse.builder().id(entry.getKey()).name(entry.getValue()).build())
                 .collect(Collectors.toList());
     }
 
     @Override
     public TagResponse getTag(UUID id) {
-        return tagRepository.findById(id)
-                .map(this::toResponse)
+        return tagIndex.nameOf(id)
+                .map(name -> TagResponse.builder().id(id).name(name).build())
+                .or(() -> tagRepository.findById(id).map(this::toResponse))
                 .orElseThrow(() -> new RuntimeException("Tag not found"));
     }
 
     @Override
-    public boolean deleteTag(UUID id) {
+    public Optional<BackgroundJob> deleteTag(UUID id) {
         if (!tagRepository.existsById(id))
-            return false;
+            return Optional.empty();
 
-        tagRepository.deleteById(id);
-        return true;
+        return Optional.of(detach(id, null));
+    }
+
+    @Override
+    public BackgroundJob mergeTag(UUID id, UUID targetId) {
+
+        if (id.equals(targetId))
+            throw new RuntimeException("Tag cannot be merged into itself");
+        if (!tagRepository.existsById(id) || !tagRepository.existsById(targetId))
+            throw new RuntimeException("Tag not found");
+
+        return detach(id, targetId);
     }
 
     @Override
@@ -65,13 +116,114 @@ public class TagServiceImpl implements TagService {
 
         return tagRepository.findById(id)
                 .map(tag -> {
+                    String previous = tag.getName();
                     tag.setName(tagRequest.getName());
-                    return tagRepository.save(tag);
+                    Tag saved = tagRepository.save(tag);
+                    if (!Objects.equals(previous, saved.getName())) {
+                        eventPublisher.publishEvent(TagsChangedEvent.renamed(saved.getId(), saved.getName()));
+                    }
+                    return saved;
                 })
                 .map(this::toResponse)
                 .orElseThrow(() -> new RuntimeException("Tag not found"));
     }
 
+    /**
+     * Detaches the tag from its translations in batches on a background job, moving them to {@code mergeInto}
+     * unless that is null, then deletes it. Every batch commits on its own, so a tag on hundreds of thousands
+     * of translations never holds locks for longer than one batch; readers see it leave gradually, and caches
+     * are invalidated once it is gone, or once the job fails after some batches.
+     */
+    private BackgroundJob detach(UUID id, UUID mergeInto) {
+
+        if (!busyTags.add(id)) throw new RuntimeException("Tag is already being deleted or merged");
+        if (mergeInto != null && !busyTags.add(mergeInto)) {
+            busyTags.remove(id);
+            throw new RuntimeException("Tag is already being deleted or merged");
+        }
+
+        try {
+            long total = tagRepository.countTranslations(id);
+            return jobRegistry.submit(mergeInto == null ? "tag-delete" : "tag-merge", total, job -> {
+                long detachedTotal = 0;
+                try {
+                    // a short batch doesn't mean the end, concurrent writes can take rows from under it
+                    int detached;
+                    do {
+                        detached = tagRepository.detachBatch(id, mergeInto, detachBatchSize);
+                        detachedTotal += detached;
+                        job.advance(detached);
+                    } while (detached > 0);
+                    deleteDetached(id, mergeInto);
+                    eventPublisher.publishEvent(mergeInto == null
+                            ? TagsChangedEvent.deleted(id)
+                            : TagsChangedEvent.merged(id, mergeInto));
+                } catch (RuntimeException ex) {
+                    // the tag is still there, but the batches before the failure have committed; listeners
+                    // can't tell which translations lost it, so they start over from the database
+                    if (detachedTotal > 0) {
+                        eventPublisher.publishEvent(new TranslationChangedEvent(Set.of()));
+                    }
+                    throw ex;
+                } finally {
+                    release(id, mergeInto);
+                }
+            });
+        } catch (RuntimeException ex) {
+            release(id, mergeInto);
+            throw ex;
+        }
+    }
+
+    // translations tagged after the last batch go in the same statement as the tag; one tagged in between
+    // fails the foreign key, and the next attempt picks it up
+    private void deleteDetached(UUID id, UUID mergeInto) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                tagRepository.deleteDetached(id, mergeInto);
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt == 3) throw ex;
+            }
+        }
+    }
+
+    private void release(UUID id, UUID mergeInto) {
+
+        busyTags.remove(id);
+        if (mergeInto != null) busyTags.remove(mergeInto);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> getTranslations(UUID id, List<String> locales) {
+
+        if (tagIndex.nameOf(id).isEmpty() && !tagRepository.existsById(id))
+            throw new RuntimeException("Tag not found");
+
+        return translations(List.of(id), TagMatch.ANY, locales);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> getTranslations(Collection<String> tagNames, TagMatch match, List<String> locales) {
+
+        List<UUID> tagIds = new ArrayList<>();
+        for (String name : tagNames) {
+            Optional<UUID> tagId = tagIndex.idOf(name);
+            if (tagId.isPresent()) tagIds.add(tagId.get());
+            // no translation carries a tag that doesn't exist
+            else if (match == TagMatch.ALL) return Map.of();
+        }
+        return translations(tagIds, match, locales);
+    }
+
+    // keys from the posting lists, values from the dictionary, in the export's locale -> key -> value shape
+    private Map<String, Map<String, String>> translations(Collection<UUID> tagIds, TagMatch match, List<String> locales) {
+
+        return translationDictionary.resolveTagged(
+                tagPostings.keys(tagIds, match, locales != null ? locales : List.of()), tagIds);
+    }
+
     private TagResponse toResponse(Tag tag) {
 
         return TagResponse.builder()
@@ -79,4 +231,4 @@ public class TagServiceImpl implements TagService {
                 .name(tag.getName())
                 .build();
     }
-}
\ No newline at end of file
+}
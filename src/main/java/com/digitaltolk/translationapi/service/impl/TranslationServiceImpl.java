@@ -1,30 +1,67 @@
 package com.digitaltolk.translationapi.service.impl;
 
+import com.digitaltolk.translationapi.cache.TranslationCache;
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.TranslationChangeRow;
+import com.digitaltolk.translationapi.dto.CursorPagedResponse;
 import com.digitaltolk.translationapi.dto.PagedResponse;
+import com.digitaltolk.translationapi.dto.TranslationDeltaResponse;
 import com.digitaltolk.translationapi.dto.TranslationRequest;
 import com.digitaltolk.translationapi.dto.TranslationResponse;
 import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.dto.TranslationTextMatch;
+import com.digitaltolk.translationapi.dto.TranslationTombstoneResponse;
 import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
 import com.digitaltolk.translationapi.entity.Translation;
-import com.digitaltolk.translationapi.repository.TagRepository;
+import com.digitaltolk.translationapi.entity.TranslationTombstone;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationKey;
+import com.digitaltolk.translationapi.export.ExportRowHandler;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
+import com.digitaltolk.translationapi.repository.DeltaCursor;
+import com.digitaltolk.translationapi.repository.KeysetCursor;
 import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.repository.TranslationTombstoneRepository;
 import com.digitaltolk.translationapi.service.TranslationService;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "translation.service", histogram = true)
 public class TranslationServiceImpl implements TranslationService {
 
     private final TranslationRepository translationRepository;
-    private final TagRepository tagRepository;
+    private final TranslationTombstoneRepository tombstoneRepository;
+    private final TagResolver tagResolver;
+    private final TranslationExportWriter exportWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TranslationCache translationCache;
+    private final LocaleFallback localeFallback;
+
+    // changes per delta page, upserts and deletes together
+    @Value("${translation.delta.page-size:10000}")
+    private int deltaPageSize = 10_000;
 
 //    @Override
 //    public Translation createTranslation(Translation translation) {
@@ -32,12 +69,19 @@ public class TranslationServiceImpl implements TranslationService {
 //    }
 
     @Override
+    @Transactional
     public List<TranslationResponse> createTranslations(List<TranslationRequest> translationRequests) {
 
-        List<Translation> translations = new ArrayList<>();
+        // one tag query for the whole batch instead of one per item
+        ResolvedTags resolvedTags = tagResolver.resolve(translationRequests.stream()
+                .filter(request -> request.getTagIds() != null)
+                .flatMap(request -> request.getTagIds().stream())
+                .toList());
+
+        List<Translation> translations = new ArrayList<>(translationRequests.size());
 
         for (TranslationRequest transaction : translationRequests) {
-            Set<Tag> tags = new HashSet<>(tagRepository.findAllById(transaction.getTagIds()));
+            Set<Tag> tags = resolvedTags.get(transaction.getTagIds());
             Translation translation = Translation.builder()
                     .key(transaction.getKey())
                     .locale(transaction.getLocale())
@@ -47,11 +91,42 @@ public class TranslationServiceImpl implements TranslationService {
             translations.add(translation);
         }
 
-        return translationRepository.saveAll(translations)
-                .stream()
+        List<Translation> saved = translationRepository.saveAll(translations);
+        eventPublisher.publishEvent(new TranslationChangedEvent(idsOf(saved)));
+
+        return saved.stream()
                 .map(this::toResponse).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public BulkUpsertResponse upsertTranslations(List<TranslationRequest> translationRequests) {
+
+        // ON CONFLICT can't touch the same row twice in one statement, so the last occurrence of a pair wins
+        Map<List<String>, TranslationRequest> unique = new LinkedHashMap<>();
+        for (TranslationRequest request : translationRequests) {
+            if (request.getKey() == null || request.getLocale() == null) {
+                throw new RuntimeException("Translation key and locale are required");
+            }
+            unique.put(List.of(request.getKey(), request.getLocale()), request);
+        }
+
+        tagResolver.resolve(unique.values().stream()
+                .filter(request -> request.getTagIds() != null)
+                .flatMap(request -> request.getTagIds().stream())
+                .toList());
+
+        BulkUpsertResponse result = translationRepository.upsertAll(unique.values());
+        result.setReceived(translationRequests.size());
+        result.setDuplicates(translationRequests.size() - unique.size());
+        result.setUnchanged(unique.size() - result.getInserted() - result.getUpdated());
+
+        if (result.getInserted() > 0 || result.getUpdated() > 0) {
+            eventPublisher.publishEvent(new TranslationChangedEvent(Set.of()));
+        }
+        return result;
+    }
+
 //    @Override
 //    public List<TranslationResponse> getAllTranslations() {
 //
@@ -79,10 +154,29 @@ public class TranslationServiceImpl implements TranslationService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<TranslationResponse> scrollTranslations(String cursor, int size) {
+
+        return seek(null, cursor, size);
+    }
+
     @Override
     public TranslationResponse getTranslation(UUID id) {
-        Optional<Translation> byId = translationRepository.findWithTagsById(id);
 
+        return translationCache.get(id, this::loadResponse);
+    }
+
+    @Override
+    public TranslationResponse getTranslation(String key, String locale) {
+
+        return translationCache.getByKey(key, locale,
+                        () -> translationRepository.findIdByKeyAndLocale(key, locale),
+                        this::loadResponse)
+                .orElseThrow(() -> new RuntimeException("Translation not found"));
+    }
+
+    private TranslationResponse loadResponse(UUID id) {
         return translationRepository.findWithTagsById(id)
                 .map(this::toResponse)
                 .orElseThrow(() -> new RuntimeException("Translation not found"));
@@ -97,20 +191,33 @@ public class TranslationServiceImpl implements TranslationService {
 
         translationRepository.removeAllTagsFromTranslation(id);
         translationRepository.deleteById(id);
+        tombstoneRepository.save(tombstoneOf(translation));
+        eventPublisher.publishEvent(new TranslationChangedEvent(Set.of(id), Set.of(TranslationKey.of(translation))));
     }
 
     @Override
+    @Transactional
     public TranslationResponse updateTranslation(UUID id, TranslationRequest translationRequest){
 
-        Set<Tag> tags = new HashSet<>(tagRepository.findAllById(translationRequest.getTagIds()));
+        Set<UUID> tagIds = translationRequest.getTagIds() != null ? translationRequest.getTagIds() : Set.of();
 
         return translationRepository.findById(id)
                 .map(translation -> {
+                    Set<Tag> tags = tagResolver.resolve(tagIds).get(tagIds);
+                    Set<TranslationKey> removedKeys = Set.of();
+                    if (!Objects.equals(translation.getKey(), translationRequest.getKey())
+                            || !Objects.equals(translation.getLocale(), translationRequest.getLocale())) {
+                        // the old (key, locale) pair disappears from the catalog
+                        tombstoneRepository.save(tombstoneOf(translation));
+                        removedKeys = Set.of(TranslationKey.of(translation));
+                    }
                     translation.setKey(translationRequest.getKey());
                     translation.setLocale(translationRequest.getLocale());
                     translation.setValue(translationRequest.getValue());
                     translation.setTags(tags);
-                    return  translationRepository.save(translation);
+                    Translation saved = translationRepository.save(translation);
+                    eventPublisher.publishEvent(new TranslationChangedEvent(Set.of(id), removedKeys));
+                    return saved;
                 })
                 .map(this::toResponse)
                 .orElseThrow(() -> new RuntimeException("Translation not found"));
@@ -140,51 +247,199 @@ public class TranslationServiceImpl implements TranslationService {
 //                .toList();
 //    }
 
-    // todo: filtering in db level
     @Override
+    @Transactional(readOnly = true)
     public Page<TranslationResponse> search(TranslationSearchRequest translationSearchRequest) {
 
         Pageable pageable = PageRequest.of(translationSearchRequest.getPage(), translationSearchRequest.getSize());
-        List<String> keys = translationSearchRequest.getKeys();
-        List<String> values = translationSearchRequest.getValues();
-        List<String> locales = translationSearchRequest.getLocales();
-        Set<String> tags = translationSearchRequest.getTags();
-
-        Page<Translation> translations = translationRepository.searchWithFilters(
-                keys != null && !keys.isEmpty() ? keys : null,
-                values != null && !values.isEmpty() ? values : null,
-                locales != null && !locales.isEmpty() ? locales : null,
-                tags != null && !tags.isEmpty() ? tags : null,
-                keys == null || keys.isEmpty(),
-                values == null || values.isEmpty(),
-                locales == null || locales.isEmpty(),
-                tags == null || tags.isEmpty(),
-                pageable
-        );
-
-//        Page<Translation> translations = translationRepository.searchWithFilters(
-//                translationSearchRequest.getKeys(),
-//                translationSearchRequest.getValues(),
-//                translationSearchRequest.getLocales(),
-//                translationSearchRequest.getTags(),
-//                pageable
-//        );
-
-        return translations.map(this::toResponse);
+        if (translationSearchRequest.getQuery() != null && !translationSearchRequest.getQuery().isBlank()) {
+            return searchText(translationSearchRequest, pageable);
+        }
+
+        // a page of ids first, then the page itself with tags, so memory is bounded by the page size
+        Page<UUID> ids = translationRepository.searchIds(translationSearchRequest, pageable);
+
+        return new PageImpl<>(loadInOrder(ids.getContent()).stream().map(this::toResponse).toList(),
+                pageable, ids.getTotalElements());
+    }
+
+    private Page<TranslationResponse> searchText(TranslationSearchRequest translationSearchRequest, Pageable pageable) {
+
+        Page<TranslationTextMatch> matches = translationRepository.searchText(translationSearchRequest, pageable);
+        Map<UUID, String> highlights = new HashMap<>();
+        matches.forEach(match -> highlights.put(match.getId(), match.getHighlight()));
+
+        List<TranslationResponse> content = loadInOrder(matches.map(TranslationTextMatch::getId).getContent()).stream()
+                .map(translation -> {
+                    TranslationResponse response = toResponse(translation);
+                    String highlight = highlights.get(translation.getId());
+                    response.setHighlight(toHtml(highlight != null ? highlight
+                            : markSubstring(translation.getValue(), translationSearchRequest.getQuery().trim())));
+                    return response;
+                })
+                .toList();
+        return new PageImpl<>(content, pageable, matches.getTotalElements());
+    }
+
+    // substring hits get no headline from the database, mark them here so every hit in a value is visible
+    private static String markSubstring(String value, String query) {
+        if (value == null) {
+            return null;
+        }
+        String plain = value.replace(TranslationTextMatch.MATCH_START, "").replace(TranslationTextMatch.MATCH_END, "");
+        Matcher matcher = Pattern.compile(Pattern.quote(query), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE).matcher(plain);
+        return matcher.find() ? matcher.replaceAll(match -> Matcher.quoteReplacement(
+                TranslationTextMatch.MATCH_START + match.group() + TranslationTextMatch.MATCH_END)) : null;
+    }
+
+    // values are user content: everything is escaped first, so the <mark> tags put in afterwards are the only markup;
+    // with a UTF-8 encoding only < > & " ' become entities, letters such as é or ü are left as they are
+    private static String toHtml(String marked) {
+        if (marked == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(marked, "UTF-8")
+                .replace(TranslationTextMatch.MATCH_START, "<mark>")
+                .replace(TranslationTextMatch.MATCH_END, "</mark>");
     }
 
     @Override
-    public Map<String, Map<String, String>> exportTranslations() {
-        List<Translation> allTranslations = translationRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<TranslationResponse> scrollSearch(TranslationSearchRequest translationSearchRequest) {
+        if (translationSearchRequest.getQuery() != null && !translationSearchRequest.getQuery().isBlank()) {
+            throw new RuntimeException("Ranked text search can't be scrolled, use /search with a page instead");
+        }
+
+        return seek(translationSearchRequest, translationSearchRequest.getCursor(), translationSearchRequest.getSize());
+    }
+
+    private CursorPagedResponse<TranslationResponse> seek(TranslationSearchRequest filter, String cursor, int size) {
+
+        List<UUID> ids = translationRepository.seekIds(filter, KeysetCursor.decode(cursor), size + 1);
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+
+        List<Translation> page = loadInOrder(ids);
+
+        Translation last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPagedResponse.<TranslationResponse>builder()
+                .pageSize(size)
+                .hasMore(hasMore)
+                .nextCursor(hasMore && last != null ? new KeysetCursor(last.getKey(), last.getLocale()).encode() : null)
+                .content(page.stream().map(this::toResponse).toList())
+                .build();
+    }
+
+    private List<Translation> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Translation> byId = translationRepository.findWithTagsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Translation::getId, t -> t));
+        // a row deleted between the two phases is simply left out
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTranslations(List<String> locales, List<String> tags, OutputStream out) throws IOException {
+        return exportRows(locales, tags, false, rows -> exportWriter.write(rows, out));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportWithFallback(List<String> locales, List<String> tags, OutputStream out) throws IOException {
+        return exportRows(locales, tags, true, rows -> exportWriter.write(rows, out));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportRows(List<String> locales, List<String> tags, boolean fallback, ExportRowHandler handler) throws IOException {
+        boolean localesNull = locales == null || locales.isEmpty();
+        boolean tagsNull = tags == null || tags.isEmpty();
+
+        if (!fallback) {
+            try (Stream<TranslationExportRow> rows = translationRepository.streamForExport(
+                    localesNull ? null : locales,
+                    tagsNull ? null : tags,
+                    localesNull,
+                    tagsNull)) {
+                return handler.handle(rows.iterator());
+            }
+        }
 
-        Map<String, Map<String, String>> export = new HashMap<>();
+        if (localesNull) {
+            throw new RuntimeException("Locales are required for a fallback export");
+        }
+        List<String> requested = locales.stream().distinct().sorted().toList();
+
+        // one key-ordered stream per chain locale, merged key by key instead of collected in memory
+        try (FallbackMerge merged = new FallbackMerge(requested, localeFallback::chain, chainLocale ->
+                translationRepository.streamLocaleInKeyOrder(chainLocale, tags))) {
+            return handler.handle(merged);
+        }
+    }
 
-        for (Translation t : allTranslations) {
-            export.computeIfAbsent(t.getLocale(), k -> new HashMap<>())
-                    .put(t.getKey(), t.getValue());
+    @Override
+    @Transactional(readOnly = true)
+    public TranslationDeltaResponse exportChanges(LocalDateTime since, List<String> locales, String page) {
+        boolean localesNull = locales == null || locales.isEmpty();
+
+        DeltaCursor position;
+        if (page == null || page.isBlank()) {
+            // taken from the database, and held back by transactions still in progress, so a row that commits
+            // late can't slip in behind a cursor that was already handed out
+            LocalDateTime cursor = translationRepository.findDeltaWindowEnd();
+            if (!cursor.isAfter(since)) {
+                return TranslationDeltaResponse.builder()
+                        .since(since)
+                        .cursor(since)
+                        .upserts(List.of())
+                        .deletes(List.of())
+                        .build();
+            }
+            position = DeltaCursor.start(since, cursor);
+        } else {
+            position = DeltaCursor.decode(page);
         }
 
-        return export;
+        // one more of each than fits, to tell whether anything is left
+        PageRequest limit = PageRequest.of(0, deltaPageSize + 1);
+        List<TranslationChangeRow> upserts = translationRepository.findChangedAfter(position.at(), position.delete(),
+                position.id(), position.until(), localesNull ? null : locales, localesNull, limit);
+        List<TranslationChangeRow> deletes = tombstoneRepository.findDeletedAfter(position.at(), position.delete(),
+                position.id(), position.until(), localesNull ? null : locales, localesNull, limit);
+
+        // merged by time, deletes first on a tie, so a page never holds a change without the earlier ones
+        List<TranslationExportRow> pageUpserts = new ArrayList<>();
+        List<TranslationTombstoneResponse> pageDeletes = new ArrayList<>();
+        int u = 0;
+        int d = 0;
+        DeltaCursor last = position;
+        while (u + d < deltaPageSize && (u < upserts.size() || d < deletes.size())) {
+            if (u == upserts.size() || (d < deletes.size()
+                    && !deletes.get(d).getChangedAt().isAfter(upserts.get(u).getChangedAt()))) {
+                TranslationChangeRow row = deletes.get(d++);
+                pageDeletes.add(new TranslationTombstoneResponse(row.getLocale(), row.getKey()));
+                last = new DeltaCursor(position.until(), row.getChangedAt(), true, row.getId());
+            } else {
+                TranslationChangeRow row = upserts.get(u++);
+                pageUpserts.add(new TranslationExportRow(row.getLocale(), row.getKey(), row.getValue()));
+                last = new DeltaCursor(position.until(), row.getChangedAt(), false, row.getId());
+            }
+        }
+        boolean hasMore = u < upserts.size() || d < deletes.size();
+
+        return TranslationDeltaResponse.builder()
+                .since(since)
+                .cursor(position.until())
+                .upserts(pageUpserts)
+                .deletes(pageDeletes)
+                .hasMore(hasMore)
+                .nextPage(hasMore ? last.encode() : null)
+                .build();
     }
 
 //    private List<Translation> searchByKey(String key) {
@@ -218,9 +473,24 @@ public class TranslationServiceImpl implements TranslationService {
 //                .toList();
 //    }
 
-    private TranslationResponse toResponse(Translation translation) {
+    private TranslationTombstone tombstoneOf(Translation translation) {
 
-        System.out.println("Tags size: " + translation.getTags().size());
+        return TranslationTombstone.builder()
+                .translationId(translation.getId())
+                .key(translation.getKey())
+                .locale(translation.getLocale())
+                .build();
+    }
+
+    private Set<UUID> idsOf(List<Translation> translations) {
+
+        return translations.stream()
+                .map(Translation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private TranslationResponse toResponse(Translation translation) {
 
         Set<Tag> tags = translation.getTags(); // loaded already by EntityGraph
 
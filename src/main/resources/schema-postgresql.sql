@@ -0,0 +1,63 @@
+-- Runs after Hibernate has created or updated the tables (spring.jpa.defer-datasource-initialization),
+-- on every start, so every statement must be idempotent. Statements are split on semicolons, which is
+-- why the function body has none.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- text search configuration for a BCP 47 locale; unknown languages are tokenized without stemming
+CREATE OR REPLACE FUNCTION translation_ts_config(locale text) RETURNS regconfig
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+SELECT CASE split_part(lower(coalesce(locale, '')), '-', 1)
+           WHEN 'ar' THEN 'arabic'::regconfig
+           WHEN 'ca' THEN 'catalan'::regconfig
+           WHEN 'da' THEN 'danish'::regconfig
+           WHEN 'de' THEN 'german'::regconfig
+           WHEN 'el' THEN 'greek'::regconfig
+           WHEN 'en' THEN 'english'::regconfig
+           WHEN 'es' THEN 'spanish'::regconfig
+           WHEN 'fi' THEN 'finnish'::regconfig
+           WHEN 'fr' THEN 'french'::regconfig
+           WHEN 'hi' THEN 'hindi'::regconfig
+           WHEN 'hu' THEN 'hungarian'::regconfig
+           WHEN 'id' THEN 'indonesian'::regconfig
+           WHEN 'it' THEN 'italian'::regconfig
+           WHEN 'nb' THEN 'norwegian'::regconfig
+           WHEN 'nl' THEN 'dutch'::regconfig
+           WHEN 'no' THEN 'norwegian'::regconfig
+           WHEN 'pt' THEN 'portuguese'::regconfig
+           WHEN 'ro' THEN 'romanian'::regconfig
+           WHEN 'ru' THEN 'russian'::regconfig
+           WHEN 'sv' THEN 'swedish'::regconfig
+           WHEN 'tr' THEN 'turkish'::regconfig
+           ELSE 'simple'::regconfig
+       END
+$$;
+
+-- a query matching a document in any of the configurations above; constant per query, so unlike a
+-- query built from the row's own locale it can drive the search_vector index
+CREATE OR REPLACE FUNCTION translation_ts_query_any(query text) RETURNS tsquery
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+SELECT websearch_to_tsquery('arabic', query) || websearch_to_tsquery('catalan', query)
+    || websearch_to_tsquery('danish', query) || websearch_to_tsquery('german', query)
+    || websearch_to_tsquery('greek', query) || websearch_to_tsquery('english', query)
+    || websearch_to_tsquery('spanish', query) || websearch_to_tsquery('finnish', query)
+    || websearch_to_tsquery('french', query) || websearch_to_tsquery('hindi', query)
+    || websearch_to_tsquery('hungarian', query) || websearch_to_tsquery('indonesian', query)
+    || websearch_to_tsquery('italian', query) || websearch_to_tsquery('norwegian', query)
+    || websearch_to_tsquery('dutch', query) || websearch_to_tsquery('portuguese', query)
+    || websearch_to_tsquery('romanian', query) || websearch_to_tsquery('russian', query)
+    || websearch_to_tsquery('swedish', query) || websearch_to_tsquery('turkish', query)
+    || websearch_to_tsquery('simple', query)
+$$;
+
+-- stored, so ranking reads the vector instead of re-parsing every matching value
+ALTER TABLE translation ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector(translation_ts_config(locale), coalesce(value, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_translation_search_vector ON translation USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_translation_value_trgm ON translation USING gin (value gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_translation_key_trgm ON translation USING gin (key gin_trgm_ops);
+
+-- the primary key leads with translation_id; deleting or merging a tag and the foreign key check on
+-- deleting one look associations up by tag
+CREATE INDEX IF NOT EXISTS idx_translation_tag_tag_id ON translation_tag (tag_id);
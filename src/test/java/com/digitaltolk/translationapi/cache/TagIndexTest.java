@@ -0,0 +1,64 @@
+package com.digitaltolk.translationapi.cache;
+
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TagIndexTest {
+
+    private final UUID webId = UUID.randomUUID();
+    private TagRepository tagRepository;
+    private TagIndex tagIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository = mock(TagRepository.class);
+        tagIndex = new TagIndex(tagRepository);
+        when(tagRepository.findAll()).thenReturn(List.of(Tag.builder().id(webId).name("web").build()));
+    }
+
+    @Test
+    void reads_shouldLoadTheTableOnce() {
+        assertThat(tagIndex.idOf("web")).contains(webId);
+        assertThat(tagIndex.nameOf(webId)).contains("web");
+        assertThat(tagIndex.contains("mobile")).isFalse();
+
+        verify(tagRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onTagsChanged_shouldApplyCreatesRenamesAndDeletes() {
+        UUID mobileId = UUID.randomUUID();
+        tagIndex.warm();
+        long loaded = tagIndex.version();
+
+        tagIndex.onTagsChanged(TagsChangedEvent.saved(Map.of(mobileId, "mobile", webId, "website")));
+
+        assertThat(tagIndex.idOf("mobile")).contains(mobileId);
+        assertThat(tagIndex.idOf("website")).contains(webId);
+        assertThat(tagIndex.contains("web")).isFalse();
+        assertThat(tagIndex.version()).isGreaterThan(loaded);
+
+        tagIndex.onTagsChanged(TagsChangedEvent.deleted(webId));
+
+        assertThat(tagIndex.all()).containsOnlyKeys(mobileId);
+        verify(tagRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onTagsChanged_shouldBeLeftToTheFirstLoad_beforeTheIndexIsLoaded() {
+        tagIndex.onTagsChanged(TagsChangedEvent.deleted(webId));
+
+        verifyNoInteractions(tagRepository);
+        assertThat(tagIndex.idOf("web")).contains(webId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.digitaltolk.translationapi.cache;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.dto.TagResponse;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import com.digitaltolk.translationapi.service.TagService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TagListCacheTest {
+
+    private TagService tagService;
+    private TagIndex tagIndex;
+    private TagListCache tagListCache;
+
+    @BeforeEach
+    void setUp() {
+        tagService = mock(TagService.class);
+        tagIndex = new TagIndex(mock(TagRepository.class));
+        tagListCache = new TagListCache(tagService, new ObjectMapper(), new Gzip(6, 1), tagIndex);
+
+        when(tagService.getAllTags()).thenReturn(List.of(TagResponse.builder().id(UUID.randomUUID()).name("web").build()));
+    }
+
+    @Test
+    void get_shouldServeSameSnapshot_untilTagsChange() {
+        TagListCache.Snapshot first = tagListCache.get();
+        TagListCache.Snapshot second = tagListCache.get();
+
+        tagIndex.warm();
+        tagIndex.onTagsChanged(TagsChangedEvent.deleted(UUID.randomUUID()));
+        TagListCache.Snapshot third = tagListCache.get();
+
+        assertThat(second).isSameAs(first);
+        assertThat(third.version()).isGreaterThan(first.version()).isEqualTo(tagListCache.currentVersion());
+        verify(tagService, times(2)).getAllTags();
+    }
+
+    @Test
+    void get_shouldKeepGzipAndIdentityInSync() throws Exception {
+        TagListCache.Snapshot snapshot = tagListCache.get();
+
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip())).readAllBytes();
+
+        assertThat(unzipped).isEqualTo(snapshot.identity());
+        assertThat(new String(snapshot.identity(), StandardCharsets.UTF_8)).contains("\"name\":\"web\"");
+    }
+}
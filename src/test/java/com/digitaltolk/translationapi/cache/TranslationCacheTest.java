@@ -0,0 +1,127 @@
+package com.digitaltolk.translationapi.cache;
+
+import com.digitaltolk.translationapi.dto.TranslationResponse;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TranslationCacheTest {
+
+    private final TranslationCache cache = new TranslationCache(1 << 20);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Function<UUID, TranslationResponse> loader(String key, String locale, String value) {
+        return id -> {
+            loads.incrementAndGet();
+            return TranslationResponse.builder().id(id).key(key).locale(locale).value(value).tags(Set.of("web")).build();
+        };
+    }
+
+    @Test
+    void get_shouldLoadOnce_andCountHitsAndMisses() {
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader("k", "en", "v"));
+        cache.get(id, loader("k", "en", "v"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().getHitCount()).isEqualTo(1);
+        assertThat(cache.stats().getMissCount()).isEqualTo(1);
+        assertThat(cache.stats().getWeightBytes()).isPositive();
+    }
+
+    @Test
+    void getByKey_shouldUseSecondaryIndex_andDropItAfterInvalidation() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, loader("k", "en", "v"));
+
+        Optional<TranslationResponse> hit = cache.getByKey("k", "en", () -> {
+            throw new AssertionError("index should answer");
+        }, loader("k", "en", "v"));
+        cache.onTranslationChanged(new TranslationChangedEvent(Set.of(id)));
+        Optional<TranslationResponse> afterWrite = cache.getByKey("k", "en", () -> Optional.of(id), loader("k", "en", "v2"));
+
+        assertThat(hit).map(TranslationResponse::getValue).contains("v");
+        assertThat(afterWrite).map(TranslationResponse::getValue).contains("v2");
+    }
+
+    @Test
+    void getByKey_shouldNotReturnRenamedEntry() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, loader("old", "en", "v"));
+        cache.invalidate(id);
+        cache.get(id, loader("new", "en", "v"));
+
+        Optional<TranslationResponse> result = cache.getByKey("old", "en", Optional::empty, loader("new", "en", "v"));
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void onTranslationChanged_shouldDropEverything_whenIdsAreUnknown() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, loader("k", "en", "v"));
+
+        cache.onTranslationChanged(new TranslationChangedEvent(Set.of()));
+        cache.get(id, loader("k", "en", "v"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldNotCacheFailedLoads() {
+        UUID id = UUID.randomUUID();
+
+        assertThatThrownBy(() -> cache.get(id, missing -> {
+            throw new RuntimeException("Translation not found");
+        })).hasMessage("Translation not found");
+
+        assertThat(cache.stats().getEntries()).isZero();
+        assertThat(cache.stats().getLoadFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldEvict_whenWeightLimitIsReached() {
+        TranslationCache small = new TranslationCache(4_096);
+        for (int i = 0; i < 200; i++) {
+            small.get(UUID.randomUUID(), loader("key" + i, "en", "value" + i));
+        }
+
+        assertThat(small.stats().getWeightBytes()).isLessThanOrEqualTo(4_096);
+        assertThat(small.stats().getEvictionCount()).isPositive();
+    }
+
+    @Test
+    void invalidate_shouldNotWaitForRunningLoad_andDropItsResult() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<TranslationResponse> stale = CompletableFuture.supplyAsync(() -> cache.get(id, key -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return loader("k", "en", "old").apply(key);
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.invalidate(id);
+        release.countDown();
+
+        assertThat(stale.get(5, TimeUnit.SECONDS).getValue()).isEqualTo("old");
+        assertThat(cache.get(id, loader("k", "en", "new")).getValue()).isEqualTo("new");
+    }
+}
@@ -0,0 +1,33 @@
+package com.digitaltolk.translationapi.compression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AcceptEncodingTest {
+
+    @Test
+    void acceptsGzip_shouldFollowTheWeightOfGzip() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("br;q=1.0, gzip;q=0.5")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("deflate, br")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void acceptsGzip_shouldTreatMalformedWeights_asNotAcceptable() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("*;q=abc")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("br;q=abc, gzip")).isTrue();
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourWildcard_unlessGzipIsListed() {
+        assertThat(AcceptEncoding.acceptsGzip("*")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("*;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip, *;q=0")).isTrue();
+    }
+}
@@ -0,0 +1,33 @@
+package com.digitaltolk.translationapi.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GzipTest {
+
+    @Test
+    void streaming_shouldEndTheDeflater_withoutClosingTheResponse() throws Exception {
+        boolean[] closed = new boolean[1];
+        ByteArrayOutputStream response = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        Gzip.Output compressed = new Gzip(6, 1).streaming(response);
+        compressed.write("{\"en\":{}}".getBytes(StandardCharsets.UTF_8));
+        compressed.finish();
+        compressed.end();
+
+        assertThat(closed[0]).isFalse();
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(response.toByteArray())).readAllBytes())
+                .asString(StandardCharsets.UTF_8).isEqualTo("{\"en\":{}}");
+    }
+}
@@ -0,0 +1,68 @@
+package com.digitaltolk.translationapi.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class BoundedDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final BoundedDataSource dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+
+    @Test
+    void getConnection_shouldTakePermit_untilConnectionIsClosedOnce() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isZero();
+
+        first.close();
+        first.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        verify(connection, times(2)).close();
+        second.close();
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_shouldFail_whenNoPermitFreesUpInTime() throws Exception {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("No connection permit within 50 ms");
+    }
+
+    @Test
+    void getConnection_shouldReturnPermit_whenPoolFails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_shouldDelegateOtherCalls() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection bounded = dataSource.getConnection();
+
+        assertThat(bounded.getAutoCommit()).isTrue();
+        assertThat(bounded).isEqualTo(bounded);
+    }
+}
@@ -0,0 +1,66 @@
+package com.digitaltolk.translationapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource write = mock(DataSource.class);
+    private final DataSource read = mock(DataSource.class);
+    private final Connection writeConnection = mock(Connection.class);
+    private final Connection readConnection = mock(Connection.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (Connection connection : new Connection[]{writeConnection, readConnection}) {
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.createStatement()).thenReturn(mock(Statement.class));
+        }
+        when(write.getConnection()).thenReturn(writeConnection);
+        when(read.getConnection()).thenReturn(readConnection);
+
+        // the same stack DataSourceConfig builds
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(write, read));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseReadPool_andEverythingElseWritePool() throws Exception {
+        transactions.setReadOnly(true);
+        transactions.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        verify(readConnection).createStatement();
+        verify(writeConnection, never()).createStatement();
+
+        transactions.setReadOnly(false);
+        transactions.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        jdbcTemplate.execute("SELECT 1");
+
+        verify(writeConnection, times(2)).createStatement();
+        verify(readConnection, times(1)).createStatement();
+    }
+
+    @Test
+    void transactionsWithoutStatements_shouldNotTakeAConnection() throws Exception {
+        clearInvocations(write, read);
+
+        transactions.executeWithoutResult(status -> {
+        });
+
+        verifyNoInteractions(write, read);
+    }
+}
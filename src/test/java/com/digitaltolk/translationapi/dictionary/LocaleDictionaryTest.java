@@ -0,0 +1,69 @@
+package com.digitaltolk.translationapi.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocaleDictionaryTest {
+
+    @Test
+    void get_shouldReturnEveryEntry_andNullForMissingKeys() {
+        LocaleDictionary.Builder builder = new LocaleDictionary.Builder();
+        for (int i = 0; i < 5000; i++) {
+            builder.put("key" + i, "value " + i);
+        }
+
+        LocaleDictionary dictionary = builder.build();
+
+        assertThat(dictionary.size()).isEqualTo(5000);
+        assertThat(dictionary.get("key0")).isEqualTo("value 0");
+        assertThat(dictionary.get("key4999")).isEqualTo("value 4999");
+        assertThat(dictionary.get("key5000")).isNull();
+        assertThat(dictionary.get("")).isNull();
+    }
+
+    @Test
+    void get_shouldHandleNonAsciiAndLongEntries() {
+        String longValue = "x".repeat(70_000);
+        LocaleDictionary dictionary = new LocaleDictionary.Builder()
+                .put("größe", "Größe")
+                .put("grösse", "other")
+                .put("日本", "日本語")
+                .put("", "empty key")
+                .put("long", longValue)
+                .build();
+
+        assertThat(dictionary.get("größe")).isEqualTo("Größe");
+        assertThat(dictionary.get("grösse")).isEqualTo("other");
+        assertThat(dictionary.get("日本")).isEqualTo("日本語");
+        assertThat(dictionary.get("")).isEqualTo("empty key");
+        assertThat(dictionary.get("long")).isEqualTo(longValue);
+        assertThat(dictionary.get("grosse")).isNull();
+    }
+
+    @Test
+    void build_shouldKeepLastValue_forDuplicateKeys() {
+        LocaleDictionary dictionary = new LocaleDictionary.Builder()
+                .put("k", "first")
+                .put("other", "o")
+                .put("k", "second")
+                .build();
+
+        Map<String, String> entries = new HashMap<>();
+        dictionary.forEach(entries::put);
+
+        assertThat(dictionary.size()).isEqualTo(2);
+        assertThat(dictionary.get("k")).isEqualTo("second");
+        assertThat(entries).containsExactlyInAnyOrderEntriesOf(Map.of("k", "second", "other", "o"));
+    }
+
+    @Test
+    void empty_shouldFindNothing() {
+        assertThat(LocaleDictionary.EMPTY.get("k")).isNull();
+        assertThat(LocaleDictionary.EMPTY.size()).isZero();
+        assertThat(LocaleDictionary.EMPTY.heapBytes()).isPositive();
+    }
+}
@@ -0,0 +1,243 @@
+package com.digitaltolk.translationapi.dictionary;
+
+import com.digitaltolk.translationapi.dto.ResolvedTranslation;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationKey;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+public class TranslationDictionaryTest {
+
+    private TranslationRepository translationRepository;
+    private PlatformTransactionManager transactionManager;
+    private TranslationDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        translationRepository = mock(TranslationRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        dictionary = new TranslationDictionary(translationRepository, transactionManager,
+                new SyncTaskExecutor(), new LocaleFallback("en", ""), 3);
+        when(translationRepository.streamForExport(any(), any(), anyBoolean(), anyBoolean())).thenAnswer(inv -> Stream.of(
+                new TranslationExportRow("en", "greeting", "Hello"),
+                new TranslationExportRow("en", "farewell", "Bye"),
+                new TranslationExportRow("fr", "greeting", "Bonjour"),
+                new TranslationExportRow("fr", "blank", null)));
+    }
+
+    @Test
+    void resolve_shouldUseDatabase_untilLoaded() {
+        when(translationRepository.findValueByKeyAndLocale("greeting", "en")).thenReturn(Optional.of("Hello"));
+
+        assertThat(dictionary.resolve("en", "greeting")).contains("Hello");
+
+        dictionary.warm();
+        assertThat(dictionary.resolveAll("fr", List.of("greeting", "blank", "missing"), false))
+                .containsOnlyKeys("greeting");
+        assertThat(dictionary.resolve("de", "greeting")).isEmpty();
+        verify(translationRepository, times(1)).findValueByKeyAndLocale(any(), any());
+        assertThat(dictionary.stats().getEntries()).isEqualTo(3);
+        assertThat(dictionary.stats().getBytesPerEntry()).isPositive();
+    }
+
+    @Test
+    void onTranslationChanged_shouldApplyWrites_andRemoveRenamedKeys() {
+        dictionary.warm();
+        UUID id = UUID.randomUUID();
+        when(translationRepository.findExportRowsByIdIn(Set.of(id)))
+                .thenReturn(List.of(new TranslationExportRow("en", "salutation", "Hi")));
+
+        dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(id), Set.of(new TranslationKey("en", "greeting"))));
+
+        assertThat(dictionary.resolve("en", "salutation")).contains("Hi");
+        assertThat(dictionary.resolve("en", "greeting")).isEmpty();
+        assertThat(dictionary.resolve("fr", "greeting")).contains("Bonjour");
+        assertThat(dictionary.stats().getLocales().get("en").getOverlayEntries()).isEqualTo(2);
+    }
+
+    @Test
+    void onTranslationChanged_shouldFoldOverlay_onceThresholdIsReached() {
+        dictionary.warm();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(translationRepository.findExportRowsByIdIn(Set.of(first, second))).thenReturn(List.of(
+                new TranslationExportRow("en", "a", "A"),
+                new TranslationExportRow("en", "b", "B")));
+
+        dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(first, second), Set.of(new TranslationKey("en", "farewell"))));
+
+        assertThat(dictionary.stats().getLocales().get("en").getOverlayEntries()).isZero();
+        assertThat(dictionary.resolveAll("en", List.of("greeting", "farewell", "a", "b"), false))
+                .extractingFromEntries(entry -> entry.getValue().getValue())
+                .containsExactly("Hello", "A", "B");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTranslationChanged_shouldQueryLargeWritesInChunks() {
+        dictionary.warm();
+        Set<UUID> ids = Stream.generate(UUID::randomUUID).limit(TranslationRepository.ID_CHUNK_SIZE * 2L + 1)
+                .collect(Collectors.toSet());
+        when(translationRepository.findExportRowsByIdIn(any())).thenAnswer(inv -> ((Collection<UUID>) inv.getArgument(0))
+                .stream().map(id -> new TranslationExportRow("en", id.toString(), "v")).toList());
+
+        dictionary.onTranslationChanged(new TranslationChangedEvent(ids));
+
+        verify(translationRepository, times(3)).findExportRowsByIdIn(argThat(chunk -> chunk.size() <= TranslationRepository.ID_CHUNK_SIZE));
+        assertThat(ids).allSatisfy(id -> assertThat(dictionary.resolve("en", id.toString())).contains("v"));
+    }
+
+    @Test
+    void onTranslationChanged_shouldNotLetAnEarlierReadOverwriteALaterOne() throws Exception {
+        dictionary.warm();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        // the first listener read before the second write committed, the second one after
+        when(translationRepository.findExportRowsByIdIn(Set.of(first))).thenAnswer(inv -> {
+            firstReading.countDown();
+            releaseFirst.await(30, TimeUnit.SECONDS);
+            return List.of(new TranslationExportRow("en", "greeting", "Old"));
+        });
+        when(translationRepository.findExportRowsByIdIn(Set.of(second)))
+                .thenReturn(List.of(new TranslationExportRow("en", "greeting", "New")));
+
+        Thread firstListener = new Thread(() -> dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(first))));
+        firstListener.start();
+        assertThat(firstReading.await(30, TimeUnit.SECONDS)).isTrue();
+        Thread secondListener = new Thread(() -> dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(second))));
+        secondListener.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (secondListener.getState() != Thread.State.BLOCKED && secondListener.isAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        releaseFirst.countDown();
+        firstListener.join(30_000);
+        secondListener.join(30_000);
+
+        assertThat(dictionary.resolve("en", "greeting")).contains("New");
+    }
+
+    @Test
+    void refresh_shouldReadInOwnWriteTransaction_soItIsServedByThePrimary() {
+        UUID id = UUID.randomUUID();
+        when(translationRepository.findExportRowsByIdIn(Set.of(id)))
+                .thenReturn(List.of(new TranslationExportRow("en", "greeting", "Hi")));
+
+        dictionary.warm();
+        dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(id)));
+
+        verify(transactionManager, times(2)).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        assertThat(dictionary.resolve("en", "greeting")).contains("Hi");
+    }
+
+    @Test
+    void resolve_shouldWalkFallbackChain_andSeeParentWrites() {
+        dictionary.warm();
+
+        Optional<ResolvedTranslation> regional = dictionary.resolve("fr-CA", "greeting", true);
+        Optional<ResolvedTranslation> fromDefault = dictionary.resolve("fr-CA", "farewell", true);
+        assertThat(dictionary.resolve("fr-CA", "greeting", false)).isEmpty();
+
+        UUID id = UUID.randomUUID();
+        when(translationRepository.findExportRowsByIdIn(Set.of(id)))
+                .thenReturn(List.of(new TranslationExportRow("fr", "farewell", "Au revoir")));
+        dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(id)));
+
+        assertThat(regional).map(ResolvedTranslation::getResolvedLocale).contains("fr");
+        assertThat(regional).map(ResolvedTranslation::getValue).contains("Bonjour");
+        assertThat(fromDefault).map(ResolvedTranslation::getResolvedLocale).contains("en");
+        assertThat(dictionary.resolve("fr-CA", "farewell", true)).map(ResolvedTranslation::getValue).contains("Au revoir");
+        assertThat(dictionary.resolve("fr-CA", "missing", true)).isEmpty();
+        assertThat(dictionary.stats().getLocales()).containsOnlyKeys("en", "fr");
+    }
+
+    @Test
+    void resolve_shouldNotKeepState_forLocalesWithoutRows() {
+        dictionary.warm();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(dictionary.resolve("fr-x" + i, "greeting", true)).map(ResolvedTranslation::getValue).contains("Bonjour");
+        }
+        assertThat(((Map<String, ?>) ReflectionTestUtils.getField(dictionary, "locales")).keySet()).containsOnly("en", "fr");
+        assertThat((Map<String, ?>) ReflectionTestUtils.getField(dictionary, "fallbackViews")).isEmpty();
+
+        UUID id = UUID.randomUUID();
+        when(translationRepository.findExportRowsByIdIn(Set.of(id)))
+                .thenReturn(List.of(new TranslationExportRow("fr-CA", "greeting", "Allô")));
+        assertThat(dictionary.resolve("fr-CA-x", "greeting", true)).map(ResolvedTranslation::getResolvedLocale).contains("fr");
+        assertThat(dictionary.resolve("fr", "greeting", true)).isPresent();
+        dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of(id)));
+
+        assertThat(dictionary.resolve("fr-CA-x", "greeting", true)).map(ResolvedTranslation::getValue).contains("Allô");
+        assertThat(dictionary.resolve("fr-CA", "greeting", true)).map(ResolvedTranslation::getResolvedLocale).contains("fr-CA");
+        assertThat(((Map<String, ?>) ReflectionTestUtils.getField(dictionary, "fallbackViews")).keySet()).containsOnly("fr", "fr-CA");
+    }
+
+    @Test
+    void resolveTagged_shouldLoadValuesInOneQuery_untilLoaded() {
+        UUID tag = UUID.randomUUID();
+        Map<String, List<String>> keys = Map.of("en", List.of("greeting", "farewell"), "fr", List.of("blank"));
+        when(translationRepository.findExportRowsByTagIdIn(List.of(tag))).thenReturn(List.of(
+                new TranslationExportRow("en", "greeting", "Hello"),
+                new TranslationExportRow("en", "farewell", "Bye"),
+                new TranslationExportRow("fr", "blank", null)));
+
+        assertThat(dictionary.resolveTagged(keys, List.of(tag)))
+                .isEqualTo(Map.of("en", Map.of("greeting", "Hello", "farewell", "Bye")));
+        verify(translationRepository, never()).findValueByKeyAndLocale(any(), any());
+
+        dictionary.warm();
+        assertThat(dictionary.resolveTagged(keys, List.of(tag)))
+                .isEqualTo(Map.of("en", Map.of("greeting", "Hello", "farewell", "Bye")));
+        verify(translationRepository, times(1)).findExportRowsByTagIdIn(any());
+    }
+
+    @Test
+    void resolve_shouldPickMostSpecificDatabaseRow_untilLoaded() {
+        when(translationRepository.findExportRowsByKeyAndLocaleIn("greeting", List.of("fr-CA", "fr", "en"))).thenReturn(List.of(
+                new TranslationExportRow("en", "greeting", "Hello"),
+                new TranslationExportRow("fr", "greeting", "Bonjour")));
+
+        assertThat(dictionary.resolve("fr-CA", "greeting", true))
+                .map(ResolvedTranslation::getResolvedLocale).contains("fr");
+    }
+
+    @Test
+    void onTranslationChanged_shouldReload_whenWriteDoesNotReportIds() {
+        dictionary.warm();
+        when(translationRepository.streamForExport(any(), any(), anyBoolean(), anyBoolean()))
+                .thenAnswer(inv -> Stream.of(new TranslationExportRow("de", "greeting", "Hallo")));
+
+        dictionary.onTranslationChanged(new TranslationChangedEvent(Set.of()));
+
+        assertThat(dictionary.resolve("de", "greeting")).contains("Hallo");
+        assertThat(dictionary.resolve("en", "greeting")).isEmpty();
+        assertThat(dictionary.stats().getEntries()).isEqualTo(1);
+    }
+}
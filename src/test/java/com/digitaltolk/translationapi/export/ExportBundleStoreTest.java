@@ -0,0 +1,121 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.job.JobStatus;
+import com.digitaltolk.translationapi.service.TranslationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+public class ExportBundleStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private TranslationService translationService;
+    private CatalogVersion catalogVersion;
+    private ExportBundleStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        translationService = mock(TranslationService.class);
+        catalogVersion = new CatalogVersion();
+        // jobs run on the calling thread
+        store = new ExportBundleStore(translationService, catalogVersion, new JobRegistry(Runnable::run),
+                new ExportBundleWriter(new Gzip(6, 1)), directory.resolve("bundles"));
+
+        when(translationService.exportRows(any(), any(), anyBoolean(), any())).thenAnswer(inv -> {
+            ExportRowHandler handler = inv.getArgument(3);
+            return handler.handle(List.of(new TranslationExportRow("en", "greeting", "hello")).iterator());
+        });
+    }
+
+    @Test
+    void request_shouldBuildOnce_perCatalogVersion() throws Exception {
+        ExportKey key = ExportKey.of(List.of("en"), null);
+
+        ExportBundleStore.Status first = store.request(key);
+        ExportBundleStore.Status second = store.request(ExportKey.of(List.of("en", "en"), List.of()));
+
+        assertThat(first.upToDate()).isTrue();
+        assertThat(first.building().getStatus()).isEqualTo(JobStatus.COMPLETED);
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(second.ready()).isSameAs(first.ready());
+        assertThat(Files.readString(first.ready().file("en").orElseThrow().identity())).isEqualTo("{\"greeting\":\"hello\"}");
+        verify(translationService, times(1)).exportRows(eq(List.of("en")), eq(List.of()), eq(false), any());
+    }
+
+    @Test
+    void request_shouldRebuild_afterCatalogChanges_andKeepOnlyTwoVersionsOnDisk() throws Exception {
+        ExportKey key = ExportKey.of(null, null);
+        ExportBundle first = store.request(key).ready();
+
+        catalogVersion.onTranslationChanged(new TranslationChangedEvent(Set.of()));
+        ExportBundle second = store.request(key).ready();
+        catalogVersion.onTranslationChanged(new TranslationChangedEvent(Set.of()));
+        ExportBundle third = store.request(key).ready();
+
+        assertThat(third.version()).isGreaterThan(second.version());
+        assertThat(store.ready(store.request(key).id())).contains(third);
+        assertThat(first.directory()).doesNotExist();
+        assertThat(second.directory()).exists();
+        verify(translationService, times(3)).exportRows(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void request_shouldKeepServingPreviousBundle_whenRebuildFails() throws Exception {
+        ExportKey key = ExportKey.of(List.of("en"), null);
+        ExportBundle first = store.request(key).ready();
+
+        catalogVersion.onTranslationChanged(new TranslationChangedEvent(Set.of()));
+        doThrow(new RuntimeException("database down")).when(translationService).exportRows(any(), any(), anyBoolean(), any());
+        ExportBundleStore.Status status = store.request(key);
+
+        assertThat(status.building().getStatus()).isEqualTo(JobStatus.FAILED);
+        assertThat(status.upToDate()).isFalse();
+        assertThat(store.ready(status.id())).contains(first);
+    }
+
+    @Test
+    void request_shouldDropLeastRecentlyUsedKey_withItsFiles_overTheCap() {
+        ReflectionTestUtils.setField(store, "maxSlots", 2);
+        ExportBundleStore.Status en = store.request(ExportKey.of(List.of("en"), null));
+        ExportBundleStore.Status fr = store.request(ExportKey.of(List.of("fr"), null));
+        assertThat(store.ready(en.id())).isPresent();
+
+        ExportBundleStore.Status de = store.request(ExportKey.of(List.of("de"), null));
+
+        assertThat(store.find(fr.id())).isEmpty();
+        assertThat(fr.ready().directory()).doesNotExist();
+        assertThat(store.find(en.id())).isPresent();
+        assertThat(store.ready(de.id())).isPresent();
+        assertThat(de.ready().directory()).exists();
+    }
+
+    @Test
+    void find_shouldDropKeys_leftIdleLongerThanTheTimeout() throws Exception {
+        ReflectionTestUtils.setField(store, "idleTimeout", Duration.ofMillis(50));
+        ExportBundleStore.Status en = store.request(ExportKey.of(List.of("en"), null));
+
+        Thread.sleep(100);
+
+        assertThat(store.find(en.id())).isEmpty();
+        assertThat(en.ready().directory()).doesNotExist();
+        assertThat(store.request(ExportKey.of(List.of("en"), null)).upToDate()).isTrue();
+    }
+}
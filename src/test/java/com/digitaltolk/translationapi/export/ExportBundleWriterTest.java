@@ -0,0 +1,56 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExportBundleWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final ExportBundleWriter writer = new ExportBundleWriter(new Gzip(6, 1));
+
+    @Test
+    void write_shouldSplitRowsIntoOneFilePerLocale_plainAndGzip() throws Exception {
+        BackgroundJob job = new JobRegistry(Runnable::run).submit("export", 0, j -> {});
+        List<TranslationExportRow> rows = List.of(
+                new TranslationExportRow("de", "a", "A"),
+                new TranslationExportRow("de", "b", "B \"quoted\""),
+                new TranslationExportRow("en", "a", "a"));
+
+        Map<String, ExportBundle.LocaleFile> files = writer.write(rows.iterator(), directory, job);
+
+        assertThat(files).containsOnlyKeys("de", "en");
+        ExportBundle.LocaleFile de = files.get("de");
+        assertThat(de.rows()).isEqualTo(2);
+        assertThat(Files.readString(de.identity())).isEqualTo("{\"a\":\"A\",\"b\":\"B \\\"quoted\\\"\"}");
+        assertThat(de.identityBytes()).isEqualTo(Files.size(de.identity()));
+        try (GZIPInputStream gzip = new GZIPInputStream(Files.newInputStream(de.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(Files.readAllBytes(de.identity()));
+        }
+        assertThat(Files.readString(files.get("en").identity())).isEqualTo("{\"a\":\"a\"}");
+        assertThat(job.getProcessed()).isEqualTo(3);
+    }
+
+    @Test
+    void write_shouldWriteNoFiles_whenThereAreNoRows() throws Exception {
+        BackgroundJob job = new JobRegistry(Runnable::run).submit("export", 0, j -> {});
+
+        assertThat(writer.write(List.<TranslationExportRow>of().iterator(), directory, job)).isEmpty();
+        try (var listing = Files.list(directory)) {
+            assertThat(listing).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.digitaltolk.translationapi.export;
+
+import com.digitaltolk.translationapi.compression.Gzip;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.service.TranslationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ExportCacheTest {
+
+    private TranslationService translationService;
+    private CatalogVersion catalogVersion;
+    private ExportCache exportCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        translationService = mock(TranslationService.class);
+        catalogVersion = new CatalogVersion();
+        exportCache = new ExportCache(translationService, catalogVersion, new Gzip(6, 1), new TranslationExportWriter());
+        ReflectionTestUtils.setField(exportCache, "maxEntries", 4);
+        ReflectionTestUtils.setField(exportCache, "maxEntryBytes", 1024);
+        ReflectionTestUtils.setField(exportCache, "maxBytes", 1L << 20);
+
+        when(translationService.exportRows(any(), any(), anyBoolean(), any())).thenAnswer(inv -> {
+            ExportRowHandler handler = inv.getArgument(3);
+            return handler.handle(List.of(new TranslationExportRow("en", "k", "v")).iterator());
+        });
+    }
+
+    @Test
+    void get_shouldServeSnapshotWithoutRebuilding_whileVersionIsUnchanged() throws Exception {
+        ExportSnapshot first = exportCache.get(ExportKey.of(List.of("en"), null));
+        ExportSnapshot second = exportCache.get(ExportKey.of(List.of("en", "en"), List.of()));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getVersion()).isEqualTo(catalogVersion.current());
+        verify(translationService, times(1)).exportRows(eq(List.of("en")), eq(List.of()), eq(false), any());
+    }
+
+    @Test
+    void get_shouldRebuild_afterCatalogChanges() throws Exception {
+        ExportSnapshot first = exportCache.get(ExportKey.of(null, null));
+
+        catalogVersion.onTranslationChanged(new TranslationChangedEvent(Set.of()));
+        ExportSnapshot second = exportCache.get(ExportKey.of(null, null));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        verify(translationService, times(2)).exportRows(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void get_shouldKeepGzipAndIdentityInSync() throws Exception {
+        ExportSnapshot snapshot = exportCache.get(ExportKey.of(null, null));
+
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip())).readAllBytes();
+
+        assertThat(unzipped).isEqualTo(snapshot.getIdentity());
+    }
+
+    @Test
+    void get_shouldReturnNull_whenPayloadExceedsLimit() throws Exception {
+        ReflectionTestUtils.setField(exportCache, "maxEntryBytes", 4);
+
+        assertThat(exportCache.get(ExportKey.of(null, null))).isNull();
+        assertThat(exportCache.get(ExportKey.of(null, null))).isNull();
+        verify(translationService, times(1)).exportRows(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void get_shouldCacheEachFormatSeparately_withTheSameDocument() throws Exception {
+        ExportSnapshot json = exportCache.get(ExportKey.of(null, null), ExportFormat.JSON);
+        ExportSnapshot smile = exportCache.get(ExportKey.of(null, null), ExportFormat.SMILE);
+
+        assertThat(new String(json.getIdentity(), StandardCharsets.UTF_8)).isEqualTo("{\"en\":{\"k\":\"v\"}}");
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile.getIdentity()))
+                .isEqualTo(new ObjectMapper().readTree(json.getIdentity()));
+        verify(translationService, times(2)).exportRows(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void get_shouldDropLeastRecentlyUsed_onceTotalBytesExceedTheBudget() throws Exception {
+        ExportSnapshot en = exportCache.get(ExportKey.of(List.of("en"), null));
+        long perEntry = (long) en.getIdentity().length + en.getGzip().length;
+        ReflectionTestUtils.setField(exportCache, "maxBytes", 2 * perEntry);
+
+        exportCache.get(ExportKey.of(List.of("fr"), null));
+        // en is now the most recently used, so de pushes out fr
+        assertThat(exportCache.get(ExportKey.of(List.of("en"), null))).isSameAs(en);
+        exportCache.get(ExportKey.of(List.of("de"), null));
+
+        assertThat(exportCache.get(ExportKey.of(List.of("en"), null))).isSameAs(en);
+        exportCache.get(ExportKey.of(List.of("fr"), null));
+        verify(translationService, times(1)).exportRows(eq(List.of("en")), any(), anyBoolean(), any());
+        verify(translationService, times(2)).exportRows(eq(List.of("fr")), any(), anyBoolean(), any());
+    }
+}
@@ -0,0 +1,23 @@
+package com.digitaltolk.translationapi.export;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExportFormatTest {
+
+    @Test
+    void negotiate_shouldDefaultToJson() {
+        assertThat(ExportFormat.negotiate(null)).isEqualTo(ExportFormat.JSON);
+        assertThat(ExportFormat.negotiate("*/*")).isEqualTo(ExportFormat.JSON);
+        assertThat(ExportFormat.negotiate("text/html")).isEqualTo(ExportFormat.JSON);
+        assertThat(ExportFormat.negotiate("not a media type")).isEqualTo(ExportFormat.JSON);
+    }
+
+    @Test
+    void negotiate_shouldPickHighestQualityBinaryFormat() {
+        assertThat(ExportFormat.negotiate("application/cbor")).isEqualTo(ExportFormat.CBOR);
+        assertThat(ExportFormat.negotiate("application/json;q=0.5, application/x-jackson-smile")).isEqualTo(ExportFormat.SMILE);
+        assertThat(ExportFormat.negotiate("application/cbor;q=0, application/json")).isEqualTo(ExportFormat.JSON);
+    }
+}
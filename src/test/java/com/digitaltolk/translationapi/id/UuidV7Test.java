@@ -0,0 +1,67 @@
+package com.digitaltolk.translationapi.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UuidV7Test {
+
+    @Test
+    void next_shouldSetVersionAndVariant_andEncodeTheTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestamp(id)).isBetween(before, after);
+    }
+
+    @Test
+    void next_shouldBeStrictlyIncreasing_inTheDatabasesByteOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7.next().toString());
+        }
+
+        // PostgreSQL compares uuids byte by byte, which is the order of their lowercase hex form
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void next_shouldNotGoBackwards_whenTheClockStepsBack() {
+        UuidV7 generator = new UuidV7();
+        long now = System.currentTimeMillis();
+        UUID first = generator.next(now, 0);
+        UUID second = generator.next(now - 1_000, -1);
+
+        assertThat(second.toString()).isGreaterThan(first.toString());
+        assertThat(UuidV7.timestamp(second)).isEqualTo(now);
+    }
+
+    @Test
+    void next_shouldBorrowFromTheNextMillisecond_whenTheCounterRunsOut() {
+        UuidV7 generator = new UuidV7();
+        long now = System.currentTimeMillis();
+        UUID last = null;
+        for (int i = 0; i <= 4096; i++) {
+            last = generator.next(now, i);
+        }
+
+        assertThat(UuidV7.timestamp(last)).isEqualTo(now + 1);
+    }
+
+    @Test
+    void timestamp_shouldRejectOtherVersions() {
+        UUID random = UUID.randomUUID();
+
+        assertThatThrownBy(() -> UuidV7.timestamp(random))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Not a version 7 UUID: " + random);
+    }
+}
@@ -0,0 +1,36 @@
+package com.digitaltolk.translationapi.locale;
+
+import org.junit.jupiter.api.Test;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocaleFallbackTest {
+
+    @Test
+    void chain_shouldDropSubtags_andEndWithDefault() {
+        LocaleFallback fallback = new LocaleFallback("en", "");
+
+        assertThat(fallback.chain("fr-CA")).containsExactly("fr-CA", "fr", "en");
+        assertThat(fallback.chain("zh_Hant_TW")).containsExactly("zh_Hant_TW", "zh_Hant", "zh", "en");
+        assertThat(fallback.chain("en-GB")).containsExactly("en-GB", "en");
+        assertThat(fallback.chain("en")).containsExactly("en");
+    }
+
+    @Test
+    void chain_shouldFollowConfiguredParents_andStopAtCycles() {
+        LocaleFallback fallback = new LocaleFallback("en", "pt-BR:pt-PT, es-419:es-ES, a:b, b:a");
+
+        assertThat(fallback.chain("pt-BR")).containsExactly("pt-BR", "pt-PT", "pt", "en");
+        assertThat(fallback.chain("es-419")).containsExactly("es-419", "es-ES", "es", "en");
+        assertThat(fallback.chain("a")).containsExactly("a", "b", "en");
+    }
+
+    @Test
+    void constructor_shouldRejectMalformedParents() {
+        assertThatThrownBy(() -> new LocaleFallback("en", "pt-BR"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid locale parent mapping: pt-BR");
+    }
+}
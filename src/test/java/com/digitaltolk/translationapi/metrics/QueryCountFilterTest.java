@@ -0,0 +1,53 @@
+package com.digitaltolk.translationapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueryCountFilterTest {
+
+    private final QueryCounter queryCounter = new QueryCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountFilter filter = new QueryCountFilter(queryCounter, meterRegistry, 20);
+
+    @Test
+    void doFilter_shouldRecordStatementsPerRequest_taggedByPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/api/translations/42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/translations/{id}");
+            queryCounter.inspect("select 1");
+            queryCounter.inspect("select 2");
+            queryCounter.inspect("select 3");
+        });
+
+        DistributionSummary summary = meterRegistry.get("http.server.requests.queries")
+                .tag("uri", "/api/translations/{id}")
+                .tag("method", "GET")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void doFilter_shouldCloseCount_whenRequestFails() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/api/translations");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            queryCounter.inspect("insert");
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+
+        // statements outside a request are not counted
+        queryCounter.inspect("select 1");
+        assertThat(queryCounter.stop()).isZero();
+        assertThat(meterRegistry.get("http.server.requests.queries").tag("uri", "UNKNOWN").summary().totalAmount())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.digitaltolk.translationapi.postings;
+
+import com.digitaltolk.translationapi.dto.TagMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostingListsTest {
+
+    private final UUID checkout = UUID.randomUUID();
+    private final UUID cart = UUID.randomUUID();
+    private final UUID profile = UUID.randomUUID();
+
+    private PostingLists postings;
+
+    @BeforeEach
+    void setUp() {
+        postings = new PostingLists();
+        postings.add("en", "cart.title", checkout);
+        postings.add("en", "cart.title", cart);
+        postings.add("en", "pay.button", checkout);
+        postings.add("en", "profile.name", profile);
+        postings.add("fr", "cart.title", cart);
+        postings.optimize();
+    }
+
+    @Test
+    void keys_shouldUnionForAny_andIntersectForAll() {
+        assertThat(postings.keys(List.of(checkout, cart), TagMatch.ANY, List.of("en")))
+                .isEqualTo(Map.of("en", List.of("cart.title", "pay.button")));
+        assertThat(postings.keys(List.of(checkout, cart), TagMatch.ALL, List.of("en")))
+                .isEqualTo(Map.of("en", List.of("cart.title")));
+        assertThat(postings.keys(List.of(checkout, UUID.randomUUID()), TagMatch.ALL, List.of("en"))).isEmpty();
+    }
+
+    @Test
+    void keys_shouldCoverEveryLocale_whenNoneRequested() {
+        assertThat(postings.keys(List.of(cart), TagMatch.ANY, List.of()))
+                .containsExactly(Map.entry("en", List.of("cart.title")), Map.entry("fr", List.of("cart.title")));
+        assertThat(postings.keys(List.of(cart), TagMatch.ANY, List.of("de"))).isEmpty();
+    }
+
+    @Test
+    void replace_shouldMoveKeysBetweenLists_withoutTouchingOtherKeys() {
+        postings.replace("en", Map.of(
+                "cart.title", Set.of(profile),
+                "pay.button", Set.of(),
+                "new.key", Set.of(checkout)));
+
+        assertThat(postings.keys(List.of(checkout), TagMatch.ANY, List.of("en")))
+                .isEqualTo(Map.of("en", List.of("new.key")));
+        assertThat(postings.keys(List.of(cart), TagMatch.ANY, List.of("en"))).isEmpty();
+        assertThat(postings.keys(List.of(profile), TagMatch.ANY, List.of("en")))
+                .isEqualTo(Map.of("en", List.of("cart.title", "profile.name")));
+        assertThat(postings.keys(List.of(cart), TagMatch.ANY, List.of("fr")))
+                .isEqualTo(Map.of("fr", List.of("cart.title")));
+    }
+
+    @Test
+    void removeTag_shouldDropItsListsInEveryLocale() {
+        postings.removeTag(cart);
+
+        assertThat(postings.keys(List.of(cart), TagMatch.ANY, List.of())).isEmpty();
+        assertThat(postings.entries()).isEqualTo(3);
+    }
+
+    @Test
+    void mergeTag_shouldHandKeysToTarget_inEveryLocale() {
+        postings.mergeTag(cart, checkout);
+
+        assertThat(postings.keys(List.of(checkout), TagMatch.ANY, List.of()))
+                .containsExactly(Map.entry("en", List.of("cart.title", "pay.button")), Map.entry("fr", List.of("cart.title")));
+        assertThat(postings.keys(List.of(cart), TagMatch.ANY, List.of())).isEmpty();
+        assertThat(postings.entries()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,51 @@
+package com.digitaltolk.translationapi.postings;
+
+import com.digitaltolk.translationapi.dto.TagMatch;
+import com.digitaltolk.translationapi.dto.TranslationTagRow;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class TagPostingsTest {
+
+    private final UUID tagId = UUID.randomUUID();
+
+    private TranslationRepository translationRepository;
+    private TagPostings tagPostings;
+
+    @BeforeEach
+    void setUp() {
+        translationRepository = mock(TranslationRepository.class);
+        tagPostings = new TagPostings(translationRepository, mock(PlatformTransactionManager.class), new SyncTaskExecutor());
+        when(translationRepository.streamTagRows()).thenAnswer(inv -> Stream.of(new TranslationTagRow("en", "greeting", tagId)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTranslationChanged_shouldQueryLargeWritesInChunks() {
+        tagPostings.warm();
+        Set<UUID> ids = Stream.generate(UUID::randomUUID).limit(TranslationRepository.ID_CHUNK_SIZE * 2L + 1)
+                .collect(Collectors.toSet());
+        when(translationRepository.findTagRowsByIdIn(any())).thenAnswer(inv -> ((Collection<UUID>) inv.getArgument(0))
+                .stream().map(id -> new TranslationTagRow("en", id.toString(), tagId)).toList());
+
+        tagPostings.onTranslationChanged(new TranslationChangedEvent(ids));
+
+        verify(translationRepository, times(3)).findTagRowsByIdIn(argThat(chunk -> chunk.size() <= TranslationRepository.ID_CHUNK_SIZE));
+        assertThat(tagPostings.keys(List.of(tagId), TagMatch.ANY, List.of()).get("en")).hasSize(ids.size() + 1);
+    }
+}
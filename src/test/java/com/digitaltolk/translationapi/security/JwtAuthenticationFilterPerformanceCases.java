@@ -0,0 +1,61 @@
+package com.digitaltolk.translationapi.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtAuthenticationFilterPerformanceCases {
+
+    private static final int WARMUP = 100_000;
+    private static final int REQUESTS = 200_000;
+
+    private final FilterChain chain = (request, response) -> { };
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterOverhead_cachedTokenShouldBeCheaperThanVerifyingEveryRequest() throws Exception {
+        JwtTokenUtil cached = new JwtTokenUtil(10_000);
+        // a cache that holds nothing verifies every request, the previous behaviour minus the second parse
+        JwtTokenUtil uncached = new JwtTokenUtil(0);
+        String token = cached.generateToken("admin");
+
+        long verifyingNanos = nanosPerRequest(new JwtAuthenticationFilter(uncached), token);
+        long cachedNanos = nanosPerRequest(new JwtAuthenticationFilter(cached), token);
+
+        System.out.println("JWT filter per request: verifying " + verifyingNanos / 1000.0 + "us, cached " + cachedNanos / 1000.0 + "us");
+        assertThat(cachedNanos).isLessThan(verifyingNanos);
+    }
+
+    private long nanosPerRequest(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/api/translations");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        for (int i = 0; i < WARMUP; i++) {
+            run(filter, request);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            run(filter, request);
+        }
+        long nanos = (System.nanoTime() - start) / REQUESTS;
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("admin");
+        return nanos;
+    }
+
+    private void run(JwtAuthenticationFilter filter, MockHttpServletRequest request) throws Exception {
+        // OncePerRequestFilter marks the request as filtered
+        request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+    }
+}
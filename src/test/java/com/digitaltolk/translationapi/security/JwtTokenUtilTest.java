@@ -0,0 +1,50 @@
+package com.digitaltolk.translationapi.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtTokenUtilTest {
+
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(100);
+
+    @Test
+    void verify_shouldReturnSubject_andCacheTheToken() {
+        String token = jwtTokenUtil.generateToken("admin");
+
+        assertThat(jwtTokenUtil.verify(token)).contains("admin");
+        assertThat(jwtTokenUtil.verify(token)).contains("admin");
+        assertThat(jwtTokenUtil.cachedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_shouldRejectTamperedAndMalformedTokens_withoutCachingThem() {
+        String token = jwtTokenUtil.generateToken("admin");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtTokenUtil.verify(tampered)).isEmpty();
+        assertThat(jwtTokenUtil.verify("not-a-token")).isEmpty();
+        assertThat(jwtTokenUtil.verify("")).isEmpty();
+        assertThat(jwtTokenUtil.cachedTokens()).isZero();
+    }
+
+    @Test
+    void verify_shouldRejectExpiredTokens() {
+        String expired = jwtTokenUtil.generateToken("admin", -1000);
+
+        assertThat(jwtTokenUtil.verify(expired)).isEmpty();
+        assertThat(jwtTokenUtil.validateToken(expired)).isFalse();
+    }
+
+    @Test
+    void verify_shouldStopAcceptingCachedToken_onceItExpires() throws Exception {
+        String token = jwtTokenUtil.generateToken("admin", 1500);
+
+        assertThat(jwtTokenUtil.verify(token)).contains("admin");
+        Thread.sleep(2600);
+
+        // exp has second precision, so the token is gone at most a second after it was due
+        assertThat(jwtTokenUtil.verify(token)).isEmpty();
+        assertThat(jwtTokenUtil.cachedTokens()).isZero();
+    }
+}
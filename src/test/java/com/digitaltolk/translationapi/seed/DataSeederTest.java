@@ -0,0 +1,123 @@
+package com.digitaltolk.translationapi.seed;
+
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.SeedRequest;
+import com.digitaltolk.translationapi.dto.TranslationRequest;
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.job.JobStatus;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import com.digitaltolk.translationapi.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+public class DataSeederTest {
+
+    private TranslationRepository translationRepository;
+    private TagRepository tagRepository;
+    private DataSeeder dataSeeder;
+    private JobRegistry jobRegistry;
+    private ApplicationEventPublisher eventPublisher;
+    private final ConcurrentLinkedQueue<TranslationRequest> written = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        translationRepository = mock(TranslationRepository.class);
+        tagRepository = mock(TagRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        dataSeeder = new DataSeeder(translationRepository, tagRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher);
+        jobRegistry = new JobRegistry(new SyncTaskExecutor());
+
+        when(tagRepository.findAllByNameIn(any())).thenReturn(List.of(Tag.builder().id(UUID.randomUUID()).name("tag1").build()));
+        when(tagRepository.saveAll(anyIterable())).thenAnswer(inv -> ((List<Tag>) inv.getArgument(0)).stream()
+                .map(tag -> Tag.builder().id(UUID.randomUUID()).name(tag.getName()).build())
+                .toList());
+        when(translationRepository.upsertAll(any())).thenAnswer(inv -> {
+            Collection<TranslationRequest> rows = inv.getArgument(0);
+            written.addAll(rows);
+            return BulkUpsertResponse.builder().received(rows.size()).inserted(rows.size()).build();
+        });
+    }
+
+    @Test
+    void run_shouldWriteEveryRowOnceAcrossParallelChunks() {
+        SeedRequest request = new SeedRequest();
+        request.setRows(2_500);
+        request.setChunkSize(1_000);
+        request.setLocales(3);
+        request.setTags(5);
+        request.setMinTagsPerRow(0);
+        request.setMaxTagsPerRow(3);
+        request.setTagSkew(1.2);
+        request.setParallelism(2);
+
+        BackgroundJob job = jobRegistry.submit("seed", request.getRows(), j -> dataSeeder.run(request, j));
+
+        assertThat(job.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(2_500);
+        verify(translationRepository, times(3)).upsertAll(any());
+        verify(tagRepository).saveAll(anyIterable());
+
+        Set<String> pairs = written.stream().map(row -> row.getKey() + "/" + row.getLocale()).collect(Collectors.toSet());
+        assertThat(pairs).hasSize(2_500).contains("key1/en", "key1/fr", "key1/de", "key834/en");
+        assertThat(written).allSatisfy(row -> assertThat(row.getTagIds()).hasSizeBetween(0, 3));
+        verify(eventPublisher, times(1)).publishEvent(new TranslationChangedEvent(Set.of()));
+    }
+
+    @Test
+    void run_shouldNotPublishTranslationChange_whenRerunChangesNothing() {
+        doAnswer(inv -> BulkUpsertResponse.builder().received(((Collection<?>) inv.getArgument(0)).size()).build())
+                .when(translationRepository).upsertAll(any());
+        SeedRequest request = new SeedRequest();
+        request.setRows(100);
+        request.setTags(1);
+
+        BackgroundJob job = jobRegistry.submit("seed", request.getRows(), j -> dataSeeder.run(request, j));
+
+        assertThat(job.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        verify(eventPublisher, never()).publishEvent(any(TranslationChangedEvent.class));
+    }
+
+    @Test
+    void run_shouldGenerateSameRows_forSameSeed() {
+        SeedRequest request = new SeedRequest();
+        DataSeeder.TagPicker picker = new DataSeeder.TagPicker(
+                List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()), 0);
+
+        assertThat(DataSeeder.generate(request, picker, 3))
+                .isEqualTo(DataSeeder.generate(request, picker, 3));
+    }
+
+    @Test
+    void run_shouldFailJob_whenTagRangeIsInverted() {
+        SeedRequest request = new SeedRequest();
+        request.setMinTagsPerRow(3);
+        request.setMaxTagsPerRow(1);
+
+        BackgroundJob job = jobRegistry.submit("seed", request.getRows(), j -> dataSeeder.run(request, j));
+
+        assertThat(job.getStatus()).isEqualTo(JobStatus.FAILED);
+        assertThat(job.getError()).contains("minTagsPerRow");
+        verifyNoInteractions(translationRepository);
+    }
+}
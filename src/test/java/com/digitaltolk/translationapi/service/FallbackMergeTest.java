@@ -0,0 +1,51 @@
+package com.digitaltolk.translationapi.service;
+
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
+import com.digitaltolk.translationapi.service.impl.FallbackMerge;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FallbackMergeTest {
+
+    @Test
+    void merge_shouldFollowCodePointOrder_outsideTheBasicPlane() {
+        String fullwidth = "Ａ";
+        String emoji = new String(Character.toChars(0x1F600));
+        Map<String, List<TranslationExportRow>> rows = Map.of(
+                "fr", List.of(new TranslationExportRow("fr", emoji, "fr")),
+                "en", List.of(new TranslationExportRow("en", fullwidth, "en"), new TranslationExportRow("en", emoji, "en")));
+
+        List<TranslationExportRow> merged = new ArrayList<>();
+        try (FallbackMerge merge = new FallbackMerge(List.of("fr"), locale -> List.of("fr", "en"),
+                locale -> rows.get(locale).stream())) {
+            merge.forEachRemaining(merged::add);
+        }
+
+        assertThat(merged).extracting(TranslationExportRow::getKey).containsExactly(fullwidth, emoji);
+        assertThat(merged).extracting(TranslationExportRow::getValue).containsExactly("en", "fr");
+    }
+
+    @Test
+    void merge_shouldCloseEachLocalesStreams_beforeOpeningTheNext() {
+        Set<String> open = ConcurrentHashMap.newKeySet();
+        List<Integer> openWhileReading = new ArrayList<>();
+
+        try (FallbackMerge merge = new FallbackMerge(List.of("de", "fr"), locale -> List.of(locale, "en"), locale -> {
+            open.add(locale);
+            return Stream.of(new TranslationExportRow(locale, "k", locale)).onClose(() -> open.remove(locale));
+        })) {
+            merge.forEachRemaining(row -> openWhileReading.add(open.size()));
+        }
+
+        assertThat(openWhileReading).containsExactly(2, 2);
+        assertThat(open).isEmpty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.digitaltolk.translationapi.service;
+
+import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.repository.TagRepository;
+import com.digitaltolk.translationapi.service.impl.ResolvedTags;
+import com.digitaltolk.translationapi.service.impl.TagResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TagResolverTest {
+
+    private TagRepository tagRepository;
+    private TagResolver tagResolver;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository = mock(TagRepository.class);
+        tagResolver = new TagResolver(tagRepository);
+    }
+
+    @Test
+    void resolve_shouldLoadDistinctIdsWithOneQuery() {
+        Tag web = Tag.builder().id(UUID.randomUUID()).name("web").build();
+        Tag mobile = Tag.builder().id(UUID.randomUUID()).name("mobile").build();
+        when(tagRepository.findAllById(Set.of(web.getId(), mobile.getId()))).thenReturn(List.of(web, mobile));
+
+        ResolvedTags resolved = tagResolver.resolve(List.of(web.getId(), mobile.getId(), web.getId()));
+
+        assertThat(resolved.get(Set.of(web.getId()))).containsExactly(web);
+        assertThat(resolved.get(Set.of(web.getId(), mobile.getId()))).containsExactlyInAnyOrder(web, mobile);
+        verify(tagRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void resolve_shouldFailFast_whenAnyIdIsUnknown() {
+        Tag web = Tag.builder().id(UUID.randomUUID()).name("web").build();
+        UUID unknown = UUID.randomUUID();
+        when(tagRepository.findAllById(any())).thenReturn(List.of(web));
+
+        assertThatThrownBy(() -> tagResolver.resolve(List.of(web.getId(), unknown)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Tags not found: [" + unknown + "]");
+    }
+
+    @Test
+    void resolve_shouldNotQuery_whenNoIdsRequested() {
+        ResolvedTags resolved = tagResolver.resolve(List.of());
+
+        assertThat(resolved.get(null)).isEmpty();
+        verifyNoInteractions(tagRepository);
+    }
+}
@@ -1,8 +1,13 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.cache.TagIndex;
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
 import com.digitaltolk.translationapi.dto.TagRequest;
 import com.digitaltolk.translationapi.dto.TagResponse;
 import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.postings.TagPostings;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.service.impl.TagServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -30,7 +36,9 @@ public class TagServiceFeatureTest {
     @Mock
     private TagRepository tagRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private TagServiceImpl tagService;
 
     private UUID tagId;
@@ -39,6 +47,8 @@ public class TagServiceFeatureTest {
 
     @BeforeEach
     void setUp() {
+        tagService = new TagServiceImpl(tagRepository, eventPublisher, new TagIndex(tagRepository),
+                mock(TagPostings.class), mock(TranslationDictionary.class), new JobRegistry(Runnable::run));
         tagId = UUID.randomUUID();
         tag = Tag.builder().id(tagId).name("tag1").build();
         tagRequest = TagRequest.builder().id(tagId).name("tag1").build();
@@ -49,11 +59,7 @@ public class TagServiceFeatureTest {
         List<TagRequest> tagRequests = List.of(tagRequest);
 
         when(tagRepository.findAll()).thenReturn(Collections.emptyList());
-        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Tag> toSave = invocation.getArgument(0);
-            toSave.get(0).setId(tagId); // simulate DB ID generation
-            return toSave;
-        });
+        when(tagRepository.insertMissing(anyCollection())).thenReturn(List.of(tag));
 
         List<TagResponse> responses = tagService.createTags(tagRequests);
 
@@ -91,23 +97,23 @@ public class TagServiceFeatureTest {
     }
 
     @Test
-    void deleteTag_shouldReturnTrue_whenExists() {
+    void deleteTag_shouldReturnJob_whenExists() {
         when(tagRepository.existsById(tagId)).thenReturn(true);
 
-        boolean result = tagService.deleteTag(tagId);
+        Optional<BackgroundJob> result = tagService.deleteTag(tagId);
 
-        assertTrue(result);
-        verify(tagRepository).deleteById(tagId);
+        assertTrue(result.isPresent());
+        verify(tagRepository).deleteDetached(tagId, null);
     }
 
     @Test
-    void deleteTag_shouldReturnFalse_whenNotExists() {
+    void deleteTag_shouldReturnEmpty_whenNotExists() {
         when(tagRepository.existsById(tagId)).thenReturn(false);
 
-        boolean result = tagService.deleteTag(tagId);
+        Optional<BackgroundJob> result = tagService.deleteTag(tagId);
 
-        assertFalse(result);
-        verify(tagRepository, never()).deleteById(tagId);
+        assertFalse(result.isPresent());
+        verify(tagRepository, never()).deleteDetached(tagId, null);
     }
 
     @Test
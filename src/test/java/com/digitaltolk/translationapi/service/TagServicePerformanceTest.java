@@ -1,44 +1,88 @@
 package com.digitaltolk.translationapi.service;
 
 import com.digitaltolk.translationapi.dto.TagRequest;
-import com.digitaltolk.translationapi.service.TagService;
+import com.digitaltolk.translationapi.dto.TagResponse;
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
+import com.digitaltolk.translationapi.postings.TagPostings;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+// every test rolls back, so fresh names really hit the table on each run and nothing is left behind
 @SpringBootTest
+@Transactional
 public class TagServicePerformanceTest {
 
     @Autowired
     private TagService tagService;
 
-    private List<TagRequest> largeTagList;
+    @Autowired
+    private TranslationDictionary translationDictionary;
+
+    @Autowired
+    private TagPostings tagPostings;
 
     @BeforeEach
-    void setUp() {
-        // Generate 10,000 unique tags
-        largeTagList = new ArrayList<>();
-        for (int i = 0; i < 10000; i++) {
-            largeTagList.add(TagRequest.builder().name("tag_" + i).build());
+    void setUp() throws InterruptedException {
+        // the catalog loads in the background on startup; on a small machine it would be measured along
+        Instant deadline = Instant.now().plus(Duration.ofMinutes(2));
+        while (!(translationDictionary.isReady() && tagPostings.isReady()) && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
         }
+        // one unmeasured batch, so the first measured one doesn't pay for class loading and JIT
+        tagService.createTags(uniqueTags(10000));
     }
 
+    // names nobody created yet, so every row really goes through the INSERT
     @Test
     void createTags_shouldCompleteWithinTimeLimit() {
+        List<TagRequest> largeTagList = uniqueTags(10000);
+
         long start = System.currentTimeMillis();
 
-        tagService.createTags(largeTagList);
+        List<TagResponse> created = tagService.createTags(largeTagList);
 
         long duration = System.currentTimeMillis() - start;
         System.out.println("Execution time: " + duration + " ms");
 
+        assertThat(created).hasSize(largeTagList.size());
         assertThat(duration).isLessThan(500);
     }
+
+    // the names exist in the table but, with the transaction rolled back, not in the tag index, so they are
+    // filtered by the database
+    @Test
+    void createTags_shouldSkipExistingTagsWithinTimeLimit() {
+        List<TagRequest> largeTagList = uniqueTags(10000);
+        tagService.createTags(largeTagList);
+
+        long start = System.currentTimeMillis();
+
+        List<TagResponse> created = tagService.createTags(largeTagList);
+
+        long duration = System.currentTimeMillis() - start;
+        System.out.println("Execution time (existing tags): " + duration + " ms");
+
+        assertThat(created).isEmpty();
+        assertThat(duration).isLessThan(500);
+    }
+
+    private static List<TagRequest> uniqueTags(int count) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<TagRequest> tags = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tags.add(TagRequest.builder().name("perf_" + run + "_" + i).build());
+        }
+        return tags;
+    }
 }
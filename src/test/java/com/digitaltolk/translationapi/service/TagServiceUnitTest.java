@@ -1,14 +1,26 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.cache.TagIndex;
+import com.digitaltolk.translationapi.dictionary.TranslationDictionary;
+import com.digitaltolk.translationapi.dto.TagMatch;
 import com.digitaltolk.translationapi.dto.TagRequest;
 import com.digitaltolk.translationapi.dto.TagResponse;
 import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.event.TagsChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.job.BackgroundJob;
+import com.digitaltolk.translationapi.job.JobRegistry;
+import com.digitaltolk.translationapi.job.JobStatus;
+import com.digitaltolk.translationapi.postings.TagPostings;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.service.impl.TagServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -19,12 +31,22 @@ import static org.mockito.Mockito.*;
 public class TagServiceUnitTest {
 
     private TagRepository tagRepository;
+    private TagIndex tagIndex;
+    private TagPostings tagPostings;
+    private TranslationDictionary translationDictionary;
+    private ApplicationEventPublisher eventPublisher;
     private TagServiceImpl tagService;
 
     @BeforeEach
     void setUp() {
         tagRepository = mock(TagRepository.class);
-        tagService = new TagServiceImpl(tagRepository);
+        tagIndex = new TagIndex(tagRepository);
+        tagPostings = mock(TagPostings.class);
+        translationDictionary = mock(TranslationDictionary.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        // jobs run on the calling thread
+        tagService = new TagServiceImpl(tagRepository, eventPublisher, tagIndex,
+                tagPostings, translationDictionary, new JobRegistry(Runnable::run));
     }
 
     @Test
@@ -41,16 +63,43 @@ public class TagServiceUnitTest {
         );
 
         when(tagRepository.findAll()).thenReturn(List.of(Tag.builder().name("tag2").build()));
-        when(tagRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tagRepository.insertMissing(any())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0)).stream()
+                .map(name -> Tag.builder().id(UUID.randomUUID()).name(name).build())
+                .toList());
 
         List<TagResponse> responses = tagService.createTags(requests);
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getName()).isEqualTo("tag1");
 
-        ArgumentCaptor<List<Tag>> captor = ArgumentCaptor.forClass(List.class);
-        verify(tagRepository).saveAll(captor.capture());
-        assertThat(captor.getValue()).extracting(Tag::getName).containsExactly("tag1");
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(tagRepository).insertMissing(captor.capture());
+        assertThat(captor.getValue()).containsExactly("tag1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateTags_dedupesNamesWithinRequest_andIndexesCreatedTags() {
+        List<TagRequest> requests = List.of(
+                TagRequest.builder().name("web").build(),
+                TagRequest.builder().name("web").build(),
+                TagRequest.builder().name("mobile").build()
+        );
+        UUID webId = UUID.randomUUID();
+        when(tagRepository.insertMissing(any())).thenReturn(List.of(
+                Tag.builder().id(webId).name("web").build(),
+                Tag.builder().id(UUID.randomUUID()).name("mobile").build()));
+
+        tagService.createTags(requests);
+        tagIndex.onTagsChanged(TagsChangedEvent.saved(Map.of(webId, "web")));
+        List<TagResponse> again = tagService.createTags(requests.subList(0, 1));
+
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(tagRepository).insertMissing(captor.capture());
+        assertThat(captor.getValue()).containsExactly("web", "mobile");
+        assertThat(again).isEmpty();
+        assertThat(tagService.getTag(webId).getName()).isEqualTo("web");
+        verify(tagRepository, never()).findById(any());
     }
 
     @Test
@@ -90,25 +139,75 @@ public class TagServiceUnitTest {
     }
 
     @Test
-    void testDeleteTag_existingId_deletesAndReturnsTrue() {
+    void testDeleteTag_existingId_detachesInBatchesThenDeletes() {
         UUID id = UUID.randomUUID();
+        ReflectionTestUtils.setField(tagService, "detachBatchSize", 2);
         when(tagRepository.existsById(id)).thenReturn(true);
+        when(tagRepository.countTranslations(id)).thenReturn(5L);
+        when(tagRepository.detachBatch(id, null, 2)).thenReturn(2, 1, 2, 0);
+
+        Optional<BackgroundJob> job = tagService.deleteTag(id);
+
+        assertThat(job).hasValueSatisfying(j -> {
+            assertThat(j.getStatus()).isEqualTo(JobStatus.COMPLETED);
+            assertThat(j.getTotal()).isEqualTo(5);
+            assertThat(j.getProcessed()).isEqualTo(5);
+        });
+        verify(tagRepository, times(4)).detachBatch(id, null, 2);
+        verify(tagRepository).deleteDetached(id, null);
+        verify(tagRepository, never()).deleteById(any());
+        verify(eventPublisher).publishEvent(TagsChangedEvent.deleted(id));
+    }
 
-        boolean result = tagService.deleteTag(id);
+    @Test
+    void testDeleteTag_failingPartway_publishesTranslationChange() {
+        UUID id = UUID.randomUUID();
+        when(tagRepository.existsById(id)).thenReturn(true);
+        when(tagRepository.detachBatch(id, null, 1000)).thenReturn(1000, 0);
+        doThrow(new DataIntegrityViolationException("fk")).when(tagRepository).deleteDetached(id, null);
 
-        assertThat(result).isTrue();
-        verify(tagRepository).deleteById(id);
+        Optional<BackgroundJob> job = tagService.deleteTag(id);
+
+        assertThat(job).hasValueSatisfying(j -> assertThat(j.getStatus()).isEqualTo(JobStatus.FAILED));
+        verify(tagRepository, times(3)).deleteDetached(id, null);
+        verify(eventPublisher).publishEvent(new TranslationChangedEvent(Set.of()));
+        verify(eventPublisher, never()).publishEvent(any(TagsChangedEvent.class));
     }
 
     @Test
-    void testDeleteTag_nonExistingId_returnsFalse() {
+    void testDeleteTag_nonExistingId_returnsEmpty() {
         UUID id = UUID.randomUUID();
         when(tagRepository.existsById(id)).thenReturn(false);
 
-        boolean result = tagService.deleteTag(id);
+        Optional<BackgroundJob> job = tagService.deleteTag(id);
 
-        assertThat(result).isFalse();
-        verify(tagRepository, never()).deleteById(any());
+        assertThat(job).isEmpty();
+        verify(tagRepository, never()).detachBatch(any(), any(), anyInt());
+        verify(tagRepository, never()).deleteDetached(any(), any());
+    }
+
+    @Test
+    void testMergeTag_movesTranslationsAndPublishesMerge() {
+        UUID id = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        when(tagRepository.existsById(any())).thenReturn(true);
+        when(tagRepository.detachBatch(id, targetId, 1000)).thenReturn(3, 0);
+
+        BackgroundJob job = tagService.mergeTag(id, targetId);
+
+        assertThat(job.getStatus()).isEqualTo(JobStatus.COMPLETED);
+        verify(tagRepository).deleteDetached(id, targetId);
+        verify(eventPublisher).publishEvent(TagsChangedEvent.merged(id, targetId));
+    }
+
+    @Test
+    void testMergeTag_intoItself_throwsException() {
+        UUID id = UUID.randomUUID();
+
+        assertThatThrownBy(() -> tagService.mergeTag(id, id))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Tag cannot be merged into itself");
+        verifyNoInteractions(tagRepository);
     }
 
     @Test
@@ -124,6 +223,7 @@ public class TagServiceUnitTest {
 
         assertThat(response.getId()).isEqualTo(id);
         assertThat(response.getName()).isEqualTo("new");
+        verify(eventPublisher).publishEvent(TagsChangedEvent.renamed(id, "new"));
     }
 
     @Test
@@ -136,4 +236,26 @@ public class TagServiceUnitTest {
                 .hasMessage("Tag not found");
     }
 
+    @Test
+    void testGetTranslations_byNames_resolvesValuesForMatchedKeys() {
+        UUID checkout = UUID.randomUUID();
+        when(tagRepository.findAll()).thenReturn(List.of(Tag.builder().id(checkout).name("checkout").build()));
+        when(tagPostings.keys(List.of(checkout), TagMatch.ANY, List.of("fr")))
+                .thenReturn(Map.of("fr", List.of("cart.title", "cart.empty")));
+        when(translationDictionary.resolveTagged(Map.of("fr", List.of("cart.title", "cart.empty")), List.of(checkout)))
+                .thenReturn(Map.of("fr", Map.of("cart.title", "Panier")));
+
+        Map<String, Map<String, String>> translations = tagService.getTranslations(
+                List.of("checkout", "unknown"), TagMatch.ANY, List.of("fr"));
+
+        assertThat(translations).isEqualTo(Map.of("fr", Map.of("cart.title", "Panier")));
+    }
+
+    @Test
+    void testGetTranslations_allWithUnknownTag_returnsNothing() {
+        when(tagRepository.findAll()).thenReturn(List.of(Tag.builder().id(UUID.randomUUID()).name("checkout").build()));
+
+        assertThat(tagService.getTranslations(List.of("checkout", "unknown"), TagMatch.ALL, null)).isEmpty();
+        verifyNoInteractions(tagPostings);
+    }
 }
@@ -1,19 +1,44 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.cache.TranslationCache;
+import com.digitaltolk.translationapi.dto.BulkUpsertResponse;
+import com.digitaltolk.translationapi.dto.TranslationChangeRow;
+import com.digitaltolk.translationapi.dto.CursorPagedResponse;
+import com.digitaltolk.translationapi.dto.TagMatch;
 import com.digitaltolk.translationapi.dto.TranslationRequest;
+import com.digitaltolk.translationapi.dto.TranslationDeltaResponse;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
 import com.digitaltolk.translationapi.dto.TranslationResponse;
 import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.dto.TranslationTextMatch;
+import com.digitaltolk.translationapi.dto.TranslationTombstoneResponse;
 import com.digitaltolk.translationapi.entity.Tag;
 import com.digitaltolk.translationapi.entity.Translation;
-import com.digitaltolk.translationapi.repository.TagRepository;
+import com.digitaltolk.translationapi.entity.TranslationTombstone;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationKey;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
+import com.digitaltolk.translationapi.repository.DeltaCursor;
+import com.digitaltolk.translationapi.repository.KeysetCursor;
 import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.repository.TranslationTombstoneRepository;
+import com.digitaltolk.translationapi.service.impl.ResolvedTags;
+import com.digitaltolk.translationapi.service.impl.TagResolver;
 import com.digitaltolk.translationapi.service.impl.TranslationServiceImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,7 +49,22 @@ public class TranslationServiceFeatureTest {
     private TranslationRepository translationRepository;
 
     @Mock
-    private TagRepository tagRepository;
+    private TagResolver tagResolver;
+
+    @Mock
+    private TranslationTombstoneRepository tombstoneRepository;
+
+    @Spy
+    private TranslationExportWriter exportWriter = new TranslationExportWriter();
+
+    @Spy
+    private TranslationCache translationCache = new TranslationCache(1 << 20);
+
+    @Spy
+    private LocaleFallback localeFallback = new LocaleFallback("en", "");
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private TranslationServiceImpl translationService;
@@ -47,7 +87,7 @@ public class TranslationServiceFeatureTest {
 
     @Test
     void createTranslations_shouldSaveOnlyUniqueKeyLocale() {
-        when(tagRepository.findAllById(any())).thenReturn(List.of(tag));
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of(tag)));
         when(translationRepository.saveAll(anyList()))
                 .thenAnswer(inv -> inv.getArgument(0));
 
@@ -101,13 +141,14 @@ public class TranslationServiceFeatureTest {
         Translation translation = Translation.builder().id(id).key("old").locale("en").value("old").tags(Set.of()).build();
 
         when(translationRepository.findById(id)).thenReturn(Optional.of(translation));
-        when(tagRepository.findAllById(any())).thenReturn(List.of(tag));
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of(tag)));
         when(translationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         TranslationResponse updated = translationService.updateTranslation(id, request);
 
         assertThat(updated.getKey()).isEqualTo("login.title");
         assertThat(updated.getTags()).contains("tag1");
+        verify(eventPublisher).publishEvent(new TranslationChangedEvent(Set.of(id), Set.of(new TranslationKey("en", "old"))));
     }
 
     @Test
@@ -117,6 +158,7 @@ public class TranslationServiceFeatureTest {
         assertThatThrownBy(() -> translationService.updateTranslation(id, request))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Translation not found");
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -136,26 +178,377 @@ public class TranslationServiceFeatureTest {
                 .tags(Set.of(tag))
                 .build();
 
-        Page<Translation> page = new PageImpl<>(List.of(translation));
-        when(translationRepository.searchWithFilters(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(), any()))
-                .thenReturn(page);
+        when(translationRepository.searchIds(eq(searchRequest), eq(PageRequest.of(0, 5))))
+                .thenReturn(new PageImpl<>(List.of(id), PageRequest.of(0, 5), 1));
+        when(translationRepository.findWithTagsByIdIn(List.of(id))).thenReturn(List.of(translation));
 
         Page<TranslationResponse> result = translationService.search(searchRequest);
 
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getKey()).isEqualTo("login.title");
+        assertThat(result.getTotalElements()).isEqualTo(1);
     }
 
     @Test
-    void exportTranslations_shouldReturnGroupedMap() {
+    void search_shouldKeepIdOrder_whenEntitiesComeBackShuffled() {
+        TranslationSearchRequest searchRequest = new TranslationSearchRequest();
+        searchRequest.setTags(Set.of("tag1", "tag2"));
+        searchRequest.setTagMatch(TagMatch.ALL);
+        Translation a = Translation.builder().id(UUID.randomUUID()).key("a").locale("en").tags(Set.of(tag)).build();
+        Translation b = Translation.builder().id(UUID.randomUUID()).key("b").locale("en").tags(Set.of(tag)).build();
+        when(translationRepository.searchIds(eq(searchRequest), any()))
+                .thenReturn(new PageImpl<>(List.of(a.getId(), b.getId()), PageRequest.of(0, 50), 120));
+        when(translationRepository.findWithTagsByIdIn(any())).thenReturn(List.of(b, a));
 
-        Translation t1 = Translation.builder().key("login.title").locale("en").value("Login").build();
-        Translation t2 = Translation.builder().key("login.title").locale("fr").value("Connexion").build();
-        when(translationRepository.findAll()).thenReturn(List.of(t1, t2));
+        Page<TranslationResponse> result = translationService.search(searchRequest);
+
+        assertThat(result.getContent()).extracting(TranslationResponse::getKey).containsExactly("a", "b");
+        assertThat(result.getTotalElements()).isEqualTo(120);
+        assertThat(result.hasNext()).isTrue();
+    }
 
-        Map<String, Map<String, String>> result = translationService.exportTranslations();
+    @Test
+    void exportTranslations_shouldReturnGroupedMap() throws Exception {
 
+        TranslationExportRow t1 = new TranslationExportRow("en", "login.title", "Login");
+        TranslationExportRow t2 = new TranslationExportRow("fr", "login.title", "Connexion");
+        when(translationRepository.streamForExport(null, null, true, true)).thenReturn(Stream.of(t1, t2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = translationService.exportTranslations(null, null, out);
+        Map<String, Map<String, String>> result = new ObjectMapper().readValue(out.toByteArray(), new TypeReference<>() {});
+
+        assertThat(written).isEqualTo(2);
         assertThat(result).containsKeys("en", "fr");
         assertThat(result.get("en")).containsEntry("login.title", "Login");
     }
+
+    @Test
+    void exportTranslations_shouldPassLocaleFilterToRepository() throws Exception {
+
+        TranslationExportRow row = new TranslationExportRow("fr", "login.title", "Connexion");
+        when(translationRepository.streamForExport(List.of("fr"), null, false, true)).thenReturn(Stream.of(row));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        translationService.exportTranslations(List.of("fr"), null, out);
+        Map<String, Map<String, String>> result = new ObjectMapper().readValue(out.toByteArray(), new TypeReference<>() {});
+
+        assertThat(result).containsOnlyKeys("fr");
+    }
+
+    @Test
+    void exportWithFallback_shouldFillGapsFromParentLocales_mergingKeyOrderedStreams() throws Exception {
+
+        when(translationRepository.streamLocaleInKeyOrder("en", null)).thenAnswer(inv -> Stream.of(
+                new TranslationExportRow("en", "login.button", "Sign in"),
+                new TranslationExportRow("en", "login.help", "Help"),
+                new TranslationExportRow("en", "login.title", "Login")));
+        when(translationRepository.streamLocaleInKeyOrder("fr", null)).thenAnswer(inv -> Stream.of(
+                new TranslationExportRow("fr", "login.title", "Connexion")));
+        when(translationRepository.streamLocaleInKeyOrder("fr-CA", null)).thenAnswer(inv -> Stream.of(
+                new TranslationExportRow("fr-CA", "login.button", "Se connecter"),
+                new TranslationExportRow("fr-CA", "signup.title", "Inscription")));
+        when(translationRepository.streamLocaleInKeyOrder("de", null)).thenAnswer(inv -> Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = translationService.exportWithFallback(List.of("fr-CA", "de"), null, out);
+        Map<String, Map<String, String>> result = new ObjectMapper().readValue(out.toByteArray(), new TypeReference<>() {});
+
+        assertThat(written).isEqualTo(7);
+        assertThat(result).containsOnlyKeys("de", "fr-CA");
+        assertThat(result.get("fr-CA")).containsExactly(
+                Map.entry("login.button", "Se connecter"), Map.entry("login.help", "Help"),
+                Map.entry("login.title", "Connexion"), Map.entry("signup.title", "Inscription"));
+        assertThat(result.get("de")).containsOnlyKeys("login.button", "login.help", "login.title");
+        verify(translationRepository, never()).streamForExport(any(), any(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void exportWithFallback_shouldRequireLocales() {
+        assertThatThrownBy(() -> translationService.exportWithFallback(null, null, new ByteArrayOutputStream()))
+                .hasMessage("Locales are required for a fallback export");
+    }
+
+    @Test
+    void deleteTranslation_shouldRecordTombstone() {
+        Translation translation = Translation.builder().id(id).key("login.title").locale("en").build();
+        when(translationRepository.findById(id)).thenReturn(Optional.of(translation));
+
+        translationService.deleteTranslation(id);
+
+        ArgumentCaptor<TranslationTombstone> captor = ArgumentCaptor.forClass(TranslationTombstone.class);
+        verify(tombstoneRepository).save(captor.capture());
+        assertThat(captor.getValue().getTranslationId()).isEqualTo(id);
+        assertThat(captor.getValue().getKey()).isEqualTo("login.title");
+        assertThat(captor.getValue().getLocale()).isEqualTo("en");
+    }
+
+    @Test
+    void updateTranslation_shouldRecordTombstone_whenKeyChanges() {
+        Translation translation = Translation.builder().id(id).key("old").locale("en").value("old").tags(Set.of()).build();
+        when(translationRepository.findById(id)).thenReturn(Optional.of(translation));
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of(tag)));
+        when(translationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        translationService.updateTranslation(id, request);
+
+        ArgumentCaptor<TranslationTombstone> captor = ArgumentCaptor.forClass(TranslationTombstone.class);
+        verify(tombstoneRepository).save(captor.capture());
+        assertThat(captor.getValue().getKey()).isEqualTo("old");
+    }
+
+    @Test
+    void updateTranslation_shouldNotRecordTombstone_whenOnlyValueChanges() {
+        Translation translation = Translation.builder().id(id).key("login.title").locale("en").value("old").tags(Set.of()).build();
+        when(translationRepository.findById(id)).thenReturn(Optional.of(translation));
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of(tag)));
+        when(translationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        translationService.updateTranslation(id, request);
+
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void exportChanges_shouldReturnUpsertsDeletesAndNextCursor() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        TranslationChangeRow upsert = new TranslationChangeRow(UUID.randomUUID(), since.plusMinutes(1), "en", "login.title", "Login");
+        TranslationChangeRow delete = new TranslationChangeRow(UUID.randomUUID(), since.plusMinutes(2), "en", "logout.title");
+        when(translationRepository.findChangedAfter(eq(since), eq(false), any(), any(), isNull(), eq(true), any())).thenReturn(List.of(upsert));
+        when(tombstoneRepository.findDeletedAfter(eq(since), eq(false), any(), any(), isNull(), eq(true), any())).thenReturn(List.of(delete));
+        LocalDateTime windowEnd = since.plusMinutes(30);
+        when(translationRepository.findDeltaWindowEnd()).thenReturn(windowEnd);
+
+        TranslationDeltaResponse delta = translationService.exportChanges(since, null, null);
+
+        assertThat(delta.getUpserts()).containsExactly(new TranslationExportRow("en", "login.title", "Login"));
+        assertThat(delta.getDeletes()).containsExactly(new TranslationTombstoneResponse("en", "logout.title"));
+        assertThat(delta.getCursor()).isEqualTo(windowEnd);
+        verify(translationRepository).findChangedAfter(since, false, DeltaCursor.start(since, windowEnd).id(), windowEnd,
+                null, true, PageRequest.of(0, 10_001));
+        assertThat(delta.isHasMore()).isFalse();
+        assertThat(delta.getNextPage()).isNull();
+    }
+
+    @Test
+    void exportChanges_shouldPageInTimeOrder_deletesFirst_andKeepTheWindow() {
+        ReflectionTestUtils.setField(translationService, "deltaPageSize", 2);
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime at = since.plusMinutes(1);
+        TranslationChangeRow first = new TranslationChangeRow(UUID.randomUUID(), at, "en", "a", "A");
+        TranslationChangeRow second = new TranslationChangeRow(UUID.randomUUID(), at.plusMinutes(1), "en", "b", "B");
+        TranslationChangeRow delete = new TranslationChangeRow(UUID.randomUUID(), at, "en", "gone");
+        when(translationRepository.findChangedAfter(eq(since), eq(false), any(), any(), isNull(), eq(true), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(first, second));
+        when(tombstoneRepository.findDeletedAfter(eq(since), eq(false), any(), any(), isNull(), eq(true), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(delete));
+        when(translationRepository.findDeltaWindowEnd()).thenReturn(since.plusMinutes(30));
+
+        TranslationDeltaResponse page = translationService.exportChanges(since, null, null);
+
+        assertThat(page.getDeletes()).containsExactly(new TranslationTombstoneResponse("en", "gone"));
+        assertThat(page.getUpserts()).containsExactly(new TranslationExportRow("en", "a", "A"));
+        assertThat(page.isHasMore()).isTrue();
+
+        DeltaCursor next = DeltaCursor.decode(page.getNextPage());
+        assertThat(next).isEqualTo(new DeltaCursor(page.getCursor(), at, false, first.getId()));
+        when(translationRepository.findChangedAfter(at, false, first.getId(), page.getCursor(), null, true, PageRequest.of(0, 3)))
+                .thenReturn(List.of(second));
+
+        TranslationDeltaResponse last = translationService.exportChanges(since, null, page.getNextPage());
+
+        assertThat(last.getUpserts()).containsExactly(new TranslationExportRow("en", "b", "B"));
+        assertThat(last.getCursor()).isEqualTo(page.getCursor());
+        assertThat(last.isHasMore()).isFalse();
+        // later pages keep the window of the first one
+        verify(translationRepository, times(1)).findDeltaWindowEnd();
+    }
+
+    @Test
+    void exportChanges_shouldRejectMalformedPage() {
+        assertThatThrownBy(() -> translationService.exportChanges(LocalDateTime.now(), null, "not-a-cursor"))
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void exportChanges_shouldNotQuery_whenTransactionsInProgressHoldTheWindowBeforeSince() {
+        LocalDateTime since = LocalDateTime.now();
+        when(translationRepository.findDeltaWindowEnd()).thenReturn(since.minusSeconds(30));
+
+        TranslationDeltaResponse delta = translationService.exportChanges(since, List.of("en"), null);
+
+        assertThat(delta.getCursor()).isEqualTo(since);
+        assertThat(delta.getUpserts()).isEmpty();
+        verify(translationRepository, never()).findChangedAfter(any(), anyBoolean(), any(), any(), any(), anyBoolean(), any());
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertTranslations_shouldKeepLastOccurrenceOfEachKeyLocale() {
+        TranslationRequest newer = new TranslationRequest();
+        newer.setKey("login.title");
+        newer.setLocale("en");
+        newer.setValue("Sign in");
+        when(translationRepository.upsertAll(any())).thenReturn(
+                BulkUpsertResponse.builder().received(1).inserted(1).build());
+
+        BulkUpsertResponse result = translationService.upsertTranslations(List.of(request, newer));
+
+        ArgumentCaptor<Collection<TranslationRequest>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(translationRepository).upsertAll(captor.capture());
+        assertThat(captor.getValue()).extracting(TranslationRequest::getValue).containsExactly("Sign in");
+        assertThat(result.getReceived()).isEqualTo(2);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isZero();
+        verify(eventPublisher).publishEvent(any(TranslationChangedEvent.class));
+    }
+
+    @Test
+    void upsertTranslations_shouldNotPublish_whenNothingChanged() {
+        when(translationRepository.upsertAll(any())).thenReturn(
+                BulkUpsertResponse.builder().received(1).build());
+
+        BulkUpsertResponse result = translationService.upsertTranslations(List.of(request));
+
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isZero();
+        verify(tagResolver).resolve(List.of(tag.getId()));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void upsertTranslations_shouldThrow_whenLocaleIsMissing() {
+        request.setLocale(null);
+
+        assertThatThrownBy(() -> translationService.upsertTranslations(List.of(request)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("locale");
+        verify(translationRepository, never()).upsertAll(any());
+    }
+
+    @Test
+    void scrollTranslations_shouldReturnCursorOfLastRow_whenMoreRowsExist() {
+        Translation first = Translation.builder().id(UUID.randomUUID()).key("a").locale("en").tags(Set.of()).build();
+        Translation second = Translation.builder().id(UUID.randomUUID()).key("b").locale("en").tags(Set.of()).build();
+        when(translationRepository.seekIds(isNull(), eq(new KeysetCursor("0", "en")), eq(3)))
+                .thenReturn(List.of(first.getId(), second.getId(), UUID.randomUUID()));
+        when(translationRepository.findWithTagsByIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(second, first));
+
+        CursorPagedResponse<TranslationResponse> page = translationService.scrollTranslations(
+                new KeysetCursor("0", "en").encode(), 2);
+
+        assertThat(page.getContent()).extracting(TranslationResponse::getKey).containsExactly("a", "b");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor("b", "en"));
+    }
+
+    @Test
+    void scrollSearch_shouldNotReturnCursor_onLastPage() {
+        TranslationSearchRequest search = new TranslationSearchRequest();
+        search.setLocales(List.of("en"));
+        search.setSize(5);
+        Translation only = Translation.builder().id(id).key("a").locale("en").tags(Set.of()).build();
+        when(translationRepository.seekIds(search, null, 6)).thenReturn(List.of(id));
+        when(translationRepository.findWithTagsByIdIn(List.of(id))).thenReturn(List.of(only));
+
+        CursorPagedResponse<TranslationResponse> page = translationService.scrollSearch(search);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void scrollTranslations_shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> translationService.scrollTranslations("not-a-cursor", 10))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid cursor");
+        verifyNoInteractions(translationRepository);
+    }
+
+    @Test
+    void search_shouldRankByTextMatch_andHighlightSubstringHits_whenQueryIsSet() {
+        TranslationSearchRequest searchRequest = new TranslationSearchRequest();
+        searchRequest.setQuery(" log ");
+        Translation fullText = Translation.builder().id(UUID.randomUUID()).key("a").locale("en").value("Log in").tags(Set.of()).build();
+        Translation substring = Translation.builder().id(UUID.randomUUID()).key("b").locale("en").value("Catalog, LOGIN").tags(Set.of()).build();
+        when(translationRepository.searchText(eq(searchRequest), any())).thenReturn(new PageImpl<>(List.of(
+                new TranslationTextMatch(fullText.getId(), 0.6, "\u0002Log\u0003 in"),
+                new TranslationTextMatch(substring.getId(), 0.0, null)), PageRequest.of(0, 50), 2));
+        when(translationRepository.findWithTagsByIdIn(any())).thenReturn(List.of(substring, fullText));
+
+        Page<TranslationResponse> result = translationService.search(searchRequest);
+
+        assertThat(result.getContent()).extracting(TranslationResponse::getHighlight)
+                .containsExactly("<mark>Log</mark> in", "Cata<mark>log</mark>, <mark>LOG</mark>IN");
+        verify(translationRepository, never()).searchIds(any(), any());
+    }
+
+    @Test
+    void search_shouldEscapeValues_beforeMarkingMatches() {
+        TranslationSearchRequest searchRequest = new TranslationSearchRequest();
+        searchRequest.setQuery("img");
+        Translation fullText = Translation.builder().id(UUID.randomUUID()).key("a").locale("en")
+                .value("<img src=x onerror=alert(1)> & \"img\"").tags(Set.of()).build();
+        Translation substring = Translation.builder().id(UUID.randomUUID()).key("b").locale("en")
+                .value("<script>\u0002</script>imgs").tags(Set.of()).build();
+        when(translationRepository.searchText(eq(searchRequest), any())).thenReturn(new PageImpl<>(List.of(
+                new TranslationTextMatch(fullText.getId(), 0.6, "<\u0002img\u0003 src=x onerror=alert(1)> & \"img\""),
+                new TranslationTextMatch(substring.getId(), 0.0, null)), PageRequest.of(0, 50), 2));
+        when(translationRepository.findWithTagsByIdIn(any())).thenReturn(List.of(fullText, substring));
+
+        Page<TranslationResponse> result = translationService.search(searchRequest);
+
+        assertThat(result.getContent()).extracting(TranslationResponse::getHighlight).containsExactly(
+                "&lt;<mark>img</mark> src=x onerror=alert(1)&gt; &amp; &quot;img&quot;",
+                "&lt;script&gt;&lt;/script&gt;<mark>img</mark>s");
+    }
+
+    @Test
+    void search_shouldKeepNonAsciiLetters_inHighlights() {
+        TranslationSearchRequest searchRequest = new TranslationSearchRequest();
+        searchRequest.setQuery("café");
+        Translation fullText = Translation.builder().id(UUID.randomUUID()).key("a").locale("fr")
+                .value("Un café & une crème").tags(Set.of()).build();
+        Translation substring = Translation.builder().id(UUID.randomUUID()).key("b").locale("de")
+                .value("Grüße aus dem Cafés").tags(Set.of()).build();
+        when(translationRepository.searchText(eq(searchRequest), any())).thenReturn(new PageImpl<>(List.of(
+                new TranslationTextMatch(fullText.getId(), 0.6, "Un \u0002café\u0003 & une crème"),
+                new TranslationTextMatch(substring.getId(), 0.0, null)), PageRequest.of(0, 50), 2));
+        when(translationRepository.findWithTagsByIdIn(any())).thenReturn(List.of(fullText, substring));
+
+        Page<TranslationResponse> result = translationService.search(searchRequest);
+
+        assertThat(result.getContent()).extracting(TranslationResponse::getHighlight).containsExactly(
+                "Un <mark>café</mark> &amp; une crème",
+                "Grüße aus dem <mark>Café</mark>s");
+    }
+
+    @Test
+    void scrollSearch_shouldRejectTextQuery() {
+        TranslationSearchRequest searchRequest = new TranslationSearchRequest();
+        searchRequest.setQuery("login");
+
+        assertThatThrownBy(() -> translationService.scrollSearch(searchRequest))
+                .isInstanceOf(RuntimeException.class);
+        verifyNoInteractions(translationRepository);
+    }
+
+    @Test
+    void getTranslation_shouldHitDatabaseOnce_forRepeatedLookups() {
+        Translation translation = Translation.builder().id(id).key("login.title").locale("en").value("Login").tags(Set.of(tag)).build();
+        when(translationRepository.findWithTagsById(id)).thenReturn(Optional.of(translation));
+        when(translationRepository.findIdByKeyAndLocale("login.title", "en")).thenReturn(Optional.of(id));
+
+        translationService.getTranslation(id);
+        translationService.getTranslation(id);
+        TranslationResponse byKey = translationService.getTranslation("login.title", "en");
+
+        assertThat(byKey.getId()).isEqualTo(id);
+        verify(translationRepository, times(1)).findWithTagsById(id);
+        verify(translationRepository, never()).findIdByKeyAndLocale(any(), any());
+        assertThat(translationCache.stats().getHitCount()).isEqualTo(2);
+    }
 }
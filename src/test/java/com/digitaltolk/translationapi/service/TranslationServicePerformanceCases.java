@@ -1,16 +1,23 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.cache.TranslationCache;
 import com.digitaltolk.translationapi.dto.TranslationRequest;
 import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
-import com.digitaltolk.translationapi.entity.Tag;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.repository.TranslationTombstoneRepository;
+import com.digitaltolk.translationapi.service.impl.TagResolver;
 import com.digitaltolk.translationapi.service.impl.TranslationServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -25,7 +32,7 @@ public class TranslationServicePerformanceCases {
     void setUp() {
         translationRepository = mock(TranslationRepository.class);
         tagRepository = mock(TagRepository.class);
-        translationService = new TranslationServiceImpl(translationRepository, tagRepository);
+        translationService = new TranslationServiceImpl(translationRepository, mock(TranslationTombstoneRepository.class), new TagResolver(tagRepository), new TranslationExportWriter(), mock(ApplicationEventPublisher.class), new TranslationCache(1 << 20), new LocaleFallback("en", ""));
     }
 
     @Test
@@ -37,10 +44,7 @@ public class TranslationServicePerformanceCases {
         request.setLocales(List.of("en"));
         request.setTags(Set.of("web"));
 
-        when(translationRepository.searchWithFilters(
-                any(), any(), any(), any(),
-                anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(),
-                any(Pageable.class)))
+        when(translationRepository.searchIds(any(), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 10), 0));
 
         long start = System.nanoTime();
@@ -53,11 +57,11 @@ public class TranslationServicePerformanceCases {
     }
 
     @Test
-    void exportPerformance_shouldExecuteUnder500ms() {
-        when(translationRepository.findAll()).thenReturn(List.of());
+    void exportPerformance_shouldExecuteUnder500ms() throws Exception {
+        when(translationRepository.streamForExport(any(), any(), anyBoolean(), anyBoolean())).thenReturn(Stream.empty());
 
         long start = System.nanoTime();
-        translationService.exportTranslations();
+        translationService.exportTranslations(null, null, OutputStream.nullOutputStream());
         long end = System.nanoTime();
         long durationMs = (end - start) / 1_000_000;
 
@@ -73,11 +77,10 @@ public class TranslationServicePerformanceCases {
             req.setKey("key" + i);
             req.setLocale("en");
             req.setValue("value" + i);
-            req.setTagIds(Set.of(UUID.randomUUID()));
+            req.setTagIds(Set.of());
             requests.add(req);
         }
 
-        when(tagRepository.findAllById(any())).thenReturn(List.of());
         when(translationRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
 
         long start = System.nanoTime();
@@ -1,20 +1,34 @@
 package com.digitaltolk.translationapi.service;
 
+import com.digitaltolk.translationapi.cache.TranslationCache;
 import com.digitaltolk.translationapi.dto.PagedResponse;
 import com.digitaltolk.translationapi.dto.TranslationRequest;
 import com.digitaltolk.translationapi.dto.TranslationSearchRequest;
+import com.digitaltolk.translationapi.dto.TranslationExportRow;
 import com.digitaltolk.translationapi.dto.TranslationResponse;
 import com.digitaltolk.translationapi.entity.Tag;
 import com.digitaltolk.translationapi.entity.Translation;
+import com.digitaltolk.translationapi.event.TranslationChangedEvent;
+import com.digitaltolk.translationapi.event.TranslationKey;
+import com.digitaltolk.translationapi.export.TranslationExportWriter;
+import com.digitaltolk.translationapi.locale.LocaleFallback;
 import com.digitaltolk.translationapi.repository.TagRepository;
 import com.digitaltolk.translationapi.repository.TranslationRepository;
+import com.digitaltolk.translationapi.repository.TranslationTombstoneRepository;
+import com.digitaltolk.translationapi.service.impl.ResolvedTags;
+import com.digitaltolk.translationapi.service.impl.TagResolver;
 import com.digitaltolk.translationapi.service.impl.TranslationServiceImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
+import java.io.ByteArrayOutputStream;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,7 +39,19 @@ public class TranslationServiceUnitTest {
     private TranslationRepository translationRepository;
 
     @Mock
-    private TagRepository tagRepository;
+    private TagResolver tagResolver;
+
+    @Mock
+    private TranslationTombstoneRepository tombstoneRepository;
+
+    @Spy
+    private TranslationExportWriter exportWriter = new TranslationExportWriter();
+
+    @Spy
+    private TranslationCache translationCache = new TranslationCache(1 << 20);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private TranslationServiceImpl translationService;
@@ -47,7 +73,7 @@ public class TranslationServiceUnitTest {
 
         Tag tag = Tag.builder().id(tagId).name("web").build();
 
-        when(tagRepository.findAllById(any())).thenReturn(List.of(tag));
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of(tag)));
         when(translationRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
 
         List<TranslationResponse> result = translationService.createTranslations(List.of(request));
@@ -110,6 +136,7 @@ public class TranslationServiceUnitTest {
 
         verify(translationRepository).removeAllTagsFromTranslation(id);
         verify(translationRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(new TranslationChangedEvent(Set.of(id), Set.of(TranslationKey.of(t))));
     }
 
     @Test
@@ -122,6 +149,7 @@ public class TranslationServiceUnitTest {
         request.setValue("Bonjour");
         request.setTagIds(Set.of());
 
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of()));
         when(translationRepository.findById(id)).thenReturn(Optional.of(existing));
         when(translationRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
@@ -137,14 +165,12 @@ public class TranslationServiceUnitTest {
                 .id(UUID.randomUUID()).key("greet").locale("en").value("Hello")
                 .tags(Set.of(Tag.builder().name("ui").build()))
                 .build();
-        Page<Translation> page = new PageImpl<>(List.of(t));
         TranslationSearchRequest req = new TranslationSearchRequest();
         req.setPage(0);
         req.setSize(10);
 
-        when(translationRepository.searchWithFilters(
-                any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(), any())
-        ).thenReturn(page);
+        when(translationRepository.searchIds(any(), any())).thenReturn(new PageImpl<>(List.of(t.getId())));
+        when(translationRepository.findWithTagsByIdIn(List.of(t.getId()))).thenReturn(List.of(t));
 
         Page<TranslationResponse> result = translationService.search(req);
 
@@ -152,23 +178,36 @@ public class TranslationServiceUnitTest {
     }
 
     @Test
-    void exportTranslations_shouldGroupByLocale() {
-        List<Translation> data = List.of(
-                Translation.builder().key("k1").value("v1").locale("en").build(),
-                Translation.builder().key("k2").value("v2").locale("fr").build(),
-                Translation.builder().key("k3").value("v3").locale("en").build()
+    void exportTranslations_shouldGroupByLocale() throws Exception {
+        Stream<TranslationExportRow> data = Stream.of(
+                new TranslationExportRow("en", "k1", "v1"),
+                new TranslationExportRow("en", "k3", "v3"),
+                new TranslationExportRow("fr", "k2", "v2")
         );
 
-        when(translationRepository.findAll()).thenReturn(data);
+        when(translationRepository.streamForExport(any(), any(), anyBoolean(), anyBoolean())).thenReturn(data);
 
-        Map<String, Map<String, String>> result = translationService.exportTranslations();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        translationService.exportTranslations(null, null, out);
+        Map<String, Map<String, String>> result = new ObjectMapper().readValue(out.toByteArray(), new TypeReference<>() {});
 
         assertThat(result.get("en")).hasSize(2);
         assertThat(result.get("fr")).hasSize(1);
     }
 
     @Test
-    void createTranslations_shouldSkipInvalidTagIds() {
+    void exportTranslations_shouldWriteEmptyObject_whenNoRows() throws Exception {
+        when(translationRepository.streamForExport(any(), any(), anyBoolean(), anyBoolean())).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = translationService.exportTranslations(null, null, out);
+
+        assertThat(written).isZero();
+        assertThat(out.toString()).isEqualTo("{}");
+    }
+
+    @Test
+    void createTranslations_shouldFailFast_whenTagIdsAreUnknown() {
         UUID invalidTagId = UUID.randomUUID();
         TranslationRequest request = new TranslationRequest();
         request.setKey("sample");
@@ -176,12 +215,62 @@ public class TranslationServiceUnitTest {
         request.setValue("text");
         request.setTagIds(Set.of(invalidTagId));
 
-        when(tagRepository.findAllById(any())).thenReturn(Collections.emptyList());
-        when(translationRepository.saveAll(any())).thenReturn(Collections.emptyList());
+        when(tagResolver.resolve(any())).thenThrow(new RuntimeException("Tags not found: [" + invalidTagId + "]"));
 
-        List<TranslationResponse> result = translationService.createTranslations(List.of(request));
+        assertThatThrownBy(() -> translationService.createTranslations(List.of(request)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining(invalidTagId.toString());
+        verify(translationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createTranslations_shouldResolveTagsOnceForWholeBatch() {
+        UUID tagId = UUID.randomUUID();
+        Tag tag = Tag.builder().id(tagId).name("web").build();
+        List<TranslationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TranslationRequest request = new TranslationRequest();
+            request.setKey("key" + i);
+            request.setLocale("en");
+            request.setValue("value" + i);
+            request.setTagIds(Set.of(tagId));
+            requests.add(request);
+        }
+
+        when(tagResolver.resolve(any())).thenReturn(ResolvedTags.of(List.of(tag)));
+        when(translationRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+
+        List<TranslationResponse> result = translationService.createTranslations(requests);
+
+        assertThat(result).allSatisfy(response -> assertThat(response.getTags()).containsExactly("web"));
+        verify(tagResolver, times(1)).resolve(any());
+    }
+
+    @Test
+    void createTranslations_shouldLoadAllTagsOfALargeBatchWithOneQuery() {
+        TagRepository tagRepository = mock(TagRepository.class);
+        TranslationServiceImpl service = new TranslationServiceImpl(translationRepository, tombstoneRepository, new TagResolver(tagRepository), exportWriter, eventPublisher, translationCache, new LocaleFallback("en", ""));
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tags.add(Tag.builder().id(UUID.randomUUID()).name("tag" + i).build());
+        }
+        List<TranslationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            TranslationRequest request = new TranslationRequest();
+            request.setKey("key" + i);
+            request.setLocale("en");
+            request.setValue("value" + i);
+            request.setTagIds(Set.of(tags.get(i % tags.size()).getId(), tags.get((i + 1) % tags.size()).getId()));
+            requests.add(request);
+        }
+
+        when(tagRepository.findAllById(any())).thenReturn(tags);
+        when(translationRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+
+        List<TranslationResponse> result = service.createTranslations(requests);
 
-        assertThat(result).isEmpty();
+        assertThat(result).hasSize(10_000).allSatisfy(response -> assertThat(response.getTags()).hasSize(2));
+        verify(tagRepository, times(1)).findAllById(any());
     }
 
     @Test
@@ -204,14 +293,12 @@ public class TranslationServiceUnitTest {
         request.setPage(0);
         request.setSize(10);
 
-        when(translationRepository.searchWithFilters(
-                any(), any(), any(), any(),
-                anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(), any()
-        )).thenReturn(Page.empty());
+        when(translationRepository.searchIds(any(), any())).thenReturn(Page.empty());
 
         Page<TranslationResponse> result = translationService.search(request);
 
         assertThat(result.getContent()).isEmpty();
+        verify(translationRepository, never()).findWithTagsByIdIn(any());
     }
 
     @Test